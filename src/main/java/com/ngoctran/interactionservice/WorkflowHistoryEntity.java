@@ -19,6 +19,9 @@ import java.util.Map;
  *
  * Based on SchedulerInstructionHistoryChangeEntity pattern
  * Tracks all state changes and actions performed on workflows
+ *
+ * Stored in monthly partitions on changed_at (see workflow_history_migration.sql);
+ * the table key is (history_id, changed_at), so changedAt is required on insert.
  */
 @Entity
 @Data
@@ -1,49 +1,83 @@
 package com.ngoctran.interactionservice;
 
 import com.ngoctran.interactionservice.dto.WorkflowExecutionStatus;
+import jakarta.persistence.QueryHint;
 import java.util.UUID;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
 
 /**
  * Workflow History Repository
  *
  * Based on SchedulerInstructionRepository pattern for PostgreSQL
  * Provides comprehensive querying capabilities for workflow audit trails
+ *
+ * workflow_history is partitioned by month on changed_at, so scans across
+ * workflows take a {@code since} bound: Postgres then only visits the partitions
+ * from that month on instead of every month ever written.
+ *
+ * The List finders load every match and are meant for narrow lookups. Browsing
+ * and export use the {@link WorkflowHistoryView} variants at the bottom: keyset
+ * pages (newest first, continuing strictly before a (changedAt, historyId)
+ * position) and Streams read with a JDBC fetch size. Streams must be consumed
+ * inside a read-only transaction and closed.
  */
 @Repository
 public interface WorkflowHistoryRepository extends JpaRepository<WorkflowHistoryEntity, UUID> {
 
+        String VIEW_SELECT = "SELECT h.historyId AS historyId, h.workflowId AS workflowId, "
+                        + "h.workflowType AS workflowType, h.action AS action, h.statusBefore AS statusBefore, "
+                        + "h.statusAfter AS statusAfter, h.changedBy AS changedBy, h.changedAt AS changedAt, "
+                        + "h.reason AS reason FROM WorkflowHistoryEntity h ";
+
+        String BEFORE_POSITION = "AND h.changedAt <= :beforeAt "
+                        + "AND (h.changedAt < :beforeAt OR h.historyId < :beforeId) ";
+
+        String NEWEST_FIRST = "ORDER BY h.changedAt DESC, h.historyId DESC";
+
+        String STREAM_FETCH_SIZE = "500";
+
         /**
          * Find all history for a specific workflow
          */
         List<WorkflowHistoryEntity> findByWorkflowIdOrderByChangedAtAsc(String workflowId);
 
         /**
-         * Find history by workflow type
+         * Find history by workflow type since a point in time
          */
-        List<WorkflowHistoryEntity> findByWorkflowTypeOrderByChangedAtDesc(String workflowType);
+        List<WorkflowHistoryEntity> findByWorkflowTypeAndChangedAtGreaterThanEqualOrderByChangedAtDesc(
+                        String workflowType, LocalDateTime since);
 
         /**
-         * Find history by user who made changes
+         * Find history by user who made changes since a point in time
          */
-        List<WorkflowHistoryEntity> findByChangedByOrderByChangedAtDesc(String changedBy);
+        List<WorkflowHistoryEntity> findByChangedByAndChangedAtGreaterThanEqualOrderByChangedAtDesc(
+                        String changedBy, LocalDateTime since);
 
         /**
-         * Find history by action type
+         * Find history by action type since a point in time
          */
-        List<WorkflowHistoryEntity> findByActionOrderByChangedAtDesc(String action);
+        List<WorkflowHistoryEntity> findByActionAndChangedAtGreaterThanEqualOrderByChangedAtDesc(
+                        String action, LocalDateTime since);
 
         /**
-         * Find history by status change
+         * Find history by status change since a point in time
          */
-        List<WorkflowHistoryEntity> findByStatusBeforeOrStatusAfterOrderByChangedAtDesc(
-                        WorkflowExecutionStatus statusBefore, WorkflowExecutionStatus statusAfter);
+        @Query("SELECT h FROM WorkflowHistoryEntity h WHERE (h.statusBefore = :statusBefore OR h.statusAfter = :statusAfter) "
+                        + "AND h.changedAt >= :since ORDER BY h.changedAt DESC")
+        List<WorkflowHistoryEntity> findByStatusChangeSince(@Param("statusBefore") WorkflowExecutionStatus statusBefore,
+                        @Param("statusAfter") WorkflowExecutionStatus statusAfter, @Param("since") LocalDateTime since);
 
         /**
          * Find history within date range
@@ -58,48 +92,104 @@ public interface WorkflowHistoryRepository extends JpaRepository<WorkflowHistory
                         String workflowId, String action);
 
         /**
-         * Find failed workflows
+         * Find failed workflows since a point in time
          */
-        @Query("SELECT h FROM WorkflowHistoryEntity h WHERE h.action = 'FAILURE' AND h.statusAfter = 'FAILED'")
-        List<WorkflowHistoryEntity> findFailedWorkflows();
+        @Query("SELECT h FROM WorkflowHistoryEntity h WHERE h.action = 'FAILURE' AND h.statusAfter = 'FAILED' "
+                        + "AND h.changedAt >= :since ORDER BY h.changedAt DESC")
+        List<WorkflowHistoryEntity> findFailedWorkflows(@Param("since") LocalDateTime since);
 
         /**
-         * Find workflows by IP address (for security audit)
+         * Find workflows by IP address since a point in time (for security audit)
          */
-        List<WorkflowHistoryEntity> findByIpAddressOrderByChangedAtDesc(String ipAddress);
+        List<WorkflowHistoryEntity> findByIpAddressAndChangedAtGreaterThanEqualOrderByChangedAtDesc(
+                        String ipAddress, LocalDateTime since);
 
         /**
-         * Count total actions by workflow type
+         * Count actions by workflow type since a point in time; dashboards should read
+         * the hourly rollups (WorkflowHistoryRollups) instead of counting rows
          */
-        @Query("SELECT COUNT(h) FROM WorkflowHistoryEntity h WHERE h.workflowType = :workflowType")
-        long countByWorkflowType(@Param("workflowType") String workflowType);
+        @Query("SELECT COUNT(h) FROM WorkflowHistoryEntity h WHERE h.workflowType = :workflowType AND h.changedAt >= :since")
+        long countByWorkflowType(@Param("workflowType") String workflowType, @Param("since") LocalDateTime since);
 
         /**
-         * Count actions by user
+         * Count actions by user since a point in time
          */
-        @Query("SELECT COUNT(h) FROM WorkflowHistoryEntity h WHERE h.changedBy = :changedBy")
-        long countByChangedBy(@Param("changedBy") String changedBy);
+        @Query("SELECT COUNT(h) FROM WorkflowHistoryEntity h WHERE h.changedBy = :changedBy AND h.changedAt >= :since")
+        long countByChangedBy(@Param("changedBy") String changedBy, @Param("since") LocalDateTime since);
 
         /**
-         * Find recent history (last N records)
+         * Find recent history (last N records); an ordered scan that stops in the newest partitions
          */
         List<WorkflowHistoryEntity> findTop10ByOrderByChangedAtDesc();
 
         /**
-         * Find history with specific metadata key (JSON query for PostgreSQL)
+         * Find history with specific metadata key since a point in time (JSON query for PostgreSQL)
          */
-        @Query(value = "SELECT * FROM workflow_history WHERE metadata::jsonb ?1 :key", nativeQuery = true)
-        List<WorkflowHistoryEntity> findByMetadataKey(@Param("key") String metadataKey);
+        @Query(value = "SELECT * FROM workflow_history WHERE jsonb_exists(metadata, :key) AND changed_at >= :since "
+                        + "ORDER BY changed_at DESC", nativeQuery = true)
+        List<WorkflowHistoryEntity> findByMetadataKey(@Param("key") String metadataKey,
+                        @Param("since") LocalDateTime since);
 
         /**
-         * Delete old history records (for cleanup)
+         * Count history older than a cutoff; expired months are dropped whole by
+         * WorkflowHistoryPartitionManager, so this only reads the partitions before the cutoff
          */
-        @Query("SELECT h FROM WorkflowHistoryEntity h WHERE h.changedAt < :cutoffDate")
-        List<WorkflowHistoryEntity> findOldHistoryBeforeDate(@Param("cutoffDate") LocalDateTime cutoffDate);
+        @Query("SELECT COUNT(h) FROM WorkflowHistoryEntity h WHERE h.changedAt < :cutoffDate")
+        long countOldHistoryBeforeDate(@Param("cutoffDate") LocalDateTime cutoffDate);
 
         /**
-         * Find workflows that changed status multiple times (potential issues)
+         * Find workflows that changed status multiple times (potential issues) since a point in time
          */
-        @Query("SELECT h FROM WorkflowHistoryEntity h WHERE h.action = 'STATUS_CHANGE'")
-        List<WorkflowHistoryEntity> findStatusChangeHistory();
+        @Query("SELECT h FROM WorkflowHistoryEntity h WHERE h.action = 'STATUS_CHANGE' AND h.changedAt >= :since")
+        List<WorkflowHistoryEntity> findStatusChangeHistory(@Param("since") LocalDateTime since);
+
+        // ---- Keyset pages (size from Pageable, page number ignored) ----
+
+        @Query(VIEW_SELECT + "WHERE h.workflowType = :workflowType AND h.changedAt >= :since "
+                        + BEFORE_POSITION + NEWEST_FIRST)
+        List<WorkflowHistoryView> findPageByWorkflowType(@Param("workflowType") String workflowType,
+                        @Param("since") LocalDateTime since, @Param("beforeAt") LocalDateTime beforeAt,
+                        @Param("beforeId") UUID beforeId, Pageable pageable);
+
+        @Query(VIEW_SELECT + "WHERE h.changedAt >= :from " + BEFORE_POSITION + NEWEST_FIRST)
+        List<WorkflowHistoryView> findPageByChangedAtFrom(@Param("from") LocalDateTime from,
+                        @Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") UUID beforeId,
+                        Pageable pageable);
+
+        @Query(VIEW_SELECT + "WHERE h.action = 'FAILURE' AND h.statusAfter = 'FAILED' AND h.changedAt >= :since "
+                        + BEFORE_POSITION + NEWEST_FIRST)
+        List<WorkflowHistoryView> findFailedPage(@Param("since") LocalDateTime since,
+                        @Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") UUID beforeId,
+                        Pageable pageable);
+
+        @Query(VIEW_SELECT + "WHERE h.action = 'STATUS_CHANGE' AND h.changedAt >= :since "
+                        + BEFORE_POSITION + NEWEST_FIRST)
+        List<WorkflowHistoryView> findStatusChangePage(@Param("since") LocalDateTime since,
+                        @Param("beforeAt") LocalDateTime beforeAt, @Param("beforeId") UUID beforeId,
+                        Pageable pageable);
+
+        // ---- Streams (consume inside a read-only transaction, then close) ----
+
+        @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                        @QueryHint(name = HINT_READ_ONLY, value = "true") })
+        @Query(VIEW_SELECT + "WHERE h.workflowType = :workflowType AND h.changedAt >= :since " + NEWEST_FIRST)
+        Stream<WorkflowHistoryView> streamByWorkflowType(@Param("workflowType") String workflowType,
+                        @Param("since") LocalDateTime since);
+
+        @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                        @QueryHint(name = HINT_READ_ONLY, value = "true") })
+        @Query(VIEW_SELECT + "WHERE h.changedAt >= :from AND h.changedAt < :to " + NEWEST_FIRST)
+        Stream<WorkflowHistoryView> streamByChangedAtBetween(@Param("from") LocalDateTime from,
+                        @Param("to") LocalDateTime to);
+
+        @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                        @QueryHint(name = HINT_READ_ONLY, value = "true") })
+        @Query(VIEW_SELECT + "WHERE h.action = 'FAILURE' AND h.statusAfter = 'FAILED' AND h.changedAt >= :since "
+                        + NEWEST_FIRST)
+        Stream<WorkflowHistoryView> streamFailed(@Param("since") LocalDateTime since);
+
+        @QueryHints({ @QueryHint(name = HINT_FETCH_SIZE, value = STREAM_FETCH_SIZE),
+                        @QueryHint(name = HINT_READ_ONLY, value = "true") })
+        @Query(VIEW_SELECT + "WHERE h.action = 'STATUS_CHANGE' AND h.changedAt >= :since " + NEWEST_FIRST)
+        Stream<WorkflowHistoryView> streamStatusChanges(@Param("since") LocalDateTime since);
 }
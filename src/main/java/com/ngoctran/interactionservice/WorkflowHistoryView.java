@@ -0,0 +1,32 @@
+package com.ngoctran.interactionservice;
+
+import com.ngoctran.interactionservice.dto.WorkflowExecutionStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Read-only view of a workflow_history row for browsing and export.
+ * Excludes the JSONB columns (change_details, metadata) and request details,
+ * so listing pages never materialize the audit payloads.
+ */
+public interface WorkflowHistoryView {
+
+    UUID getHistoryId();
+
+    String getWorkflowId();
+
+    String getWorkflowType();
+
+    String getAction();
+
+    WorkflowExecutionStatus getStatusBefore();
+
+    WorkflowExecutionStatus getStatusAfter();
+
+    String getChangedBy();
+
+    LocalDateTime getChangedAt();
+
+    String getReason();
+}
@@ -71,9 +71,9 @@ public class BpmnProcessService {
                 log.info("Successfully deployed process: {}", deployment.id);
 
                 // Publish deployment event
-                eventPublisher.publishWorkflowStateEvent(deployment.id,
+                eventPublisher.inOwnTransaction(() -> eventPublisher.publishWorkflowStateEvent(deployment.id,
                         processKey, "NONE", "DEPLOYED",
-                        Map.of("name", processName));
+                        Map.of("name", processName)));
             }
             return deployment;
         } catch (Exception e) {
@@ -227,9 +227,9 @@ public class BpmnProcessService {
             restTemplate.postForEntity(url, entity, String.class);
 
             // Publish signal event
-            eventPublisher.publishWorkflowStateEvent(processInstanceId, "UNKNOWN",
+            eventPublisher.inOwnTransaction(() -> eventPublisher.publishWorkflowStateEvent(processInstanceId, "UNKNOWN",
                     "RUNNING", "SIGNALED",
-                    Map.of("signalName", signalName, "data", signalData != null ? signalData : Map.of()));
+                    Map.of("signalName", signalName, "data", signalData != null ? signalData : Map.of())));
         } catch (Exception e) {
             log.error("Failed to signal process: {}", processInstanceId, e);
             throw new RuntimeException("Signal failed: " + e.getMessage(), e);
@@ -266,9 +266,9 @@ public class BpmnProcessService {
             restTemplate.postForEntity(url, entity, String.class);
 
             // Publish message event
-            eventPublisher.publishWorkflowStateEvent(businessKey, "UNKNOWN",
+            eventPublisher.inOwnTransaction(() -> eventPublisher.publishWorkflowStateEvent(businessKey, "UNKNOWN",
                     "RUNNING", "MESSAGE_CORRELATED",
-                    Map.of("messageName", messageName, "data", messageData != null ? messageData : Map.of()));
+                    Map.of("messageName", messageName, "data", messageData != null ? messageData : Map.of())));
         } catch (Exception e) {
             log.error("Failed to correlate message: {}", messageName, e);
             throw new RuntimeException("Message correlation failed: " + e.getMessage(), e);
@@ -395,8 +395,8 @@ public class BpmnProcessService {
             restTemplate.put(url, entity);
 
             // Publish suspend event
-            eventPublisher.publishWorkflowStateEvent(processInstanceId, "UNKNOWN",
-                    "RUNNING", "SUSPENDED", Map.of());
+            eventPublisher.inOwnTransaction(() -> eventPublisher.publishWorkflowStateEvent(processInstanceId, "UNKNOWN",
+                    "RUNNING", "SUSPENDED", Map.of()));
         } catch (Exception e) {
             log.error("Failed to suspend process instance: {}", processInstanceId, e);
             throw new RuntimeException("Process suspend failed: " + e.getMessage(), e);
@@ -422,8 +422,8 @@ public class BpmnProcessService {
             restTemplate.put(url, entity);
 
             // Publish activate event
-            eventPublisher.publishWorkflowStateEvent(processInstanceId, "UNKNOWN",
-                    "SUSPENDED", "ACTIVE", Map.of());
+            eventPublisher.inOwnTransaction(() -> eventPublisher.publishWorkflowStateEvent(processInstanceId, "UNKNOWN",
+                    "SUSPENDED", "ACTIVE", Map.of()));
         } catch (Exception e) {
             log.error("Failed to activate process instance: {}", processInstanceId, e);
             throw new RuntimeException("Process activate failed: " + e.getMessage(), e);
@@ -488,10 +488,10 @@ public class BpmnProcessService {
             HttpEntity<Map<String, Object>> entity = new HttpEntity<>(request, headers);
             restTemplate.postForEntity(url, entity, String.class);
 
-            eventPublisher.publishWorkflowStateEvent("SYSTEM", "BPMN_MIGRATION",
+            eventPublisher.inOwnTransaction(() -> eventPublisher.publishWorkflowStateEvent("SYSTEM", "BPMN_MIGRATION",
                     "RUNNING", "MIGRATED",
                     Map.of("instanceCount", processInstanceIds.size(), "target",
-                            migrationPlan.get("targetProcessDefinitionId")));
+                            migrationPlan.get("targetProcessDefinitionId"))));
         } catch (Exception e) {
             log.error("Failed to execute migration plan", e);
             throw new RuntimeException("Migration execution failed: " + e.getMessage());
@@ -1,5 +1,6 @@
 package com.ngoctran.interactionservice.bpmn;
 
+import com.ngoctran.interactionservice.cases.CaseMutationExecutor;
 import com.ngoctran.interactionservice.cases.CaseRepository;
 import com.ngoctran.interactionservice.events.WorkflowEventPublisher;
 import com.ngoctran.interactionservice.mapping.ProcessMappingService;
@@ -36,6 +37,7 @@ public class EventDrivenExternalWorker {
     private final RestTemplate restTemplate;
     private final WorkflowEventPublisher eventPublisher;
     private final CaseRepository caseRepository;
+    private final CaseMutationExecutor caseMutations;
     private final ProcessMappingService processMappingService;
 
     // Metrics
@@ -205,7 +207,8 @@ public class EventDrivenExternalWorker {
                 "validationTimestamp", Instant.now().toString());
 
         if (caseId != null) {
-            eventPublisher.publishInteractionStepEvent(caseId, "onboarding", "DATA_VALIDATION", "COMPLETED", variables);
+            eventPublisher.inOwnTransaction(() -> eventPublisher.publishInteractionStepEvent(caseId, "onboarding",
+                    "DATA_VALIDATION", "COMPLETED", variables));
         }
 
         return variables;
@@ -219,7 +222,8 @@ public class EventDrivenExternalWorker {
                 "ocrStatus", "SUCCESS");
 
         if (caseId != null) {
-            eventPublisher.publishPerformanceEvent(caseId, "OCR_PROCESSING", 500, "SUCCESS");
+            eventPublisher.inOwnTransaction(
+                    () -> eventPublisher.publishPerformanceEvent(caseId, "OCR_PROCESSING", 500, "SUCCESS"));
         }
 
         return variables;
@@ -231,8 +235,8 @@ public class EventDrivenExternalWorker {
         Map<String, Object> variables = Map.of("complianceStatus", "PASSED");
 
         if (caseId != null) {
-            eventPublisher.publishComplianceEvent(caseId, "N/A", "AML_CHECK", "PASSED",
-                    Map.of("reason", "Applicant is clear"));
+            eventPublisher.inOwnTransaction(() -> eventPublisher.publishComplianceEvent(caseId, "N/A", "AML_CHECK",
+                    "PASSED", Map.of("reason", "Applicant is clear")));
         }
 
         return variables;
@@ -244,16 +248,22 @@ public class EventDrivenExternalWorker {
         String accountNumber = "ACC" + System.currentTimeMillis();
 
         if (caseId != null) {
-            caseRepository.findById(UUID.fromString(caseId)).ifPresent(caseEntity -> {
-                caseEntity.setStatus("APPROVED");
-                caseRepository.save(caseEntity);
-                log.info("Case {} updated to APPROVED", caseId);
+            UUID caseUuid = UUID.fromString(caseId);
+            // Races with user step submissions on the same case; retried on version conflicts together with
+            // its events. Flushed so the bumped version can go out with the delta event
+            caseMutations.run(caseUuid, "approveCase", () -> {
+                Integer version = caseRepository.findById(caseUuid).map(caseEntity -> {
+                    caseEntity.setStatus("APPROVED");
+                    return caseRepository.saveAndFlush(caseEntity).getVersion();
+                }).orElse(null);
+
+                eventPublisher.publishAccountCreatedEvent(caseId, UUID.randomUUID().toString(), accountNumber,
+                        "Customer", "SAVINGS");
+                // Only the status changed; case_data is untouched, so the patch is empty
+                eventPublisher.publishCaseUpdateEvent(caseId, "onboarding", Map.of(), version,
+                        Map.of("status", "APPROVED", "accountNumber", accountNumber));
             });
-
-            eventPublisher.publishAccountCreatedEvent(caseId, UUID.randomUUID().toString(), accountNumber,
-                    "Customer", "SAVINGS");
-            eventPublisher.publishCaseUpdateEvent(caseId, "onboarding", Map.of("accountNumber", accountNumber),
-                    Map.of("status", "APPROVED"));
+            log.info("Case {} updated to APPROVED", caseId);
         }
 
         return Map.of("accountNumber", accountNumber, "accountCreated", true);
@@ -263,8 +273,8 @@ public class EventDrivenExternalWorker {
         log.info("Finalizing Workflow for Case: {}", caseId);
 
         if (caseId != null) {
-            eventPublisher.publishWorkflowStateEvent(processInstanceId, "onboarding", "RUNNING", "COMPLETED",
-                    Map.of("caseId", caseId));
+            eventPublisher.inOwnTransaction(() -> eventPublisher.publishWorkflowStateEvent(processInstanceId,
+                    "onboarding", "RUNNING", "COMPLETED", Map.of("caseId", caseId)));
         }
 
         try {
@@ -291,9 +301,9 @@ public class EventDrivenExternalWorker {
                     "status", "COMPLETED"
             );
 
-            eventPublisher.publishSystemErrorEvent(caseId, processInstanceId,
+            eventPublisher.inOwnTransaction(() -> eventPublisher.publishSystemErrorEvent(caseId, processInstanceId,
                     "GLOBAL_CANCEL", "CANCEL_REQUESTED", "Process cancelled by global cancel message",
-                    "INFO", false, cleanupRecord);
+                    "INFO", false, cleanupRecord));
 
             updateCaseStatus(caseId, "CANCELLED", "Process cancelled globally");
 
@@ -1,5 +1,7 @@
 package com.ngoctran.interactionservice.bpmn;
 
+import com.ngoctran.interactionservice.events.EventKeys;
+import com.ngoctran.interactionservice.events.EventLogSampler;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -15,6 +17,9 @@ import java.util.Map;
  *
  * Usage: Call this from Flowable service tasks or event listeners
  * when external jobs are created.
+ *
+ * Records are keyed by the case in the payload data ({@code caseId}), falling back
+ * to the process instance, so all events of one case share a partition.
  */
 @Component
 @RequiredArgsConstructor
@@ -22,6 +27,7 @@ import java.util.Map;
 public class FlowableEventBridge {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final EventLogSampler eventLog;
 
     /**
      * Publish external job creation event to Kafka
@@ -43,8 +49,10 @@ public class FlowableEventBridge {
         );
 
         try {
-            kafkaTemplate.send("flowable-external-jobs", jobId, event);
-            log.info("Published external job creation event for job: {} topic: {}", jobId, topic);
+            kafkaTemplate.send("flowable-external-jobs", EventKeys.forWorkflow(processInstanceId, jobData), event);
+            if (eventLog.sample(log, "FlowableExternalJobEvent")) {
+                log.info("Published external job creation event for job: {} topic: {}", jobId, topic);
+            }
         } catch (Exception e) {
             log.error("Failed to publish external job event for job: {}", jobId, e);
         }
@@ -66,7 +74,7 @@ public class FlowableEventBridge {
         );
 
         try {
-            kafkaTemplate.send("flowable-process-events", processInstanceId, event);
+            kafkaTemplate.send("flowable-process-events", EventKeys.forWorkflow(processInstanceId, eventData), event);
             log.debug("Published process event: {} for process: {}", eventType, processInstanceId);
         } catch (Exception e) {
             log.error("Failed to publish process event: {}", e.getMessage());
@@ -90,7 +98,7 @@ public class FlowableEventBridge {
         );
 
         try {
-            kafkaTemplate.send("flowable-task-events", taskId, event);
+            kafkaTemplate.send("flowable-task-events", EventKeys.forWorkflow(processInstanceId, taskData), event);
             log.debug("Published task event: {} for task: {}", eventType, taskId);
         } catch (Exception e) {
             log.error("Failed to publish task event: {}", e.getMessage());
@@ -111,7 +119,9 @@ public class FlowableEventBridge {
         // For now, just publish the event
         publishExternalJobCreated(jobId, topic, processInstanceId, jobData);
 
-        log.info("Created external job: {} for topic: {}", jobId, topic);
+        if (eventLog.sample(log, "FlowableExternalJobEvent")) {
+            log.info("Created external job: {} for topic: {}", jobId, topic);
+        }
         return jobId;
     }
 }
@@ -1,5 +1,6 @@
 package com.ngoctran.interactionservice.bpmn;
 
+import com.ngoctran.interactionservice.cases.CaseMutationExecutor;
 import com.ngoctran.interactionservice.cases.CaseRepository;
 import com.ngoctran.interactionservice.events.WorkflowEventPublisher;
 import com.ngoctran.interactionservice.mapping.ProcessMappingService;
@@ -29,6 +30,7 @@ public class FlowableExternalWorker {
     private final RestTemplate restTemplate;
     private final WorkflowEventPublisher eventPublisher;
     private final CaseRepository caseRepository;
+    private final CaseMutationExecutor caseMutations;
     private final ProcessMappingService processMappingService;
     private final String flowableBaseUrl = "http://localhost:8080/flowable-rest"; // Should be configurable
 
@@ -108,7 +110,8 @@ public class FlowableExternalWorker {
                 "validationTimestamp", Instant.now().toString());
 
         if (caseId != null) {
-            eventPublisher.publishInteractionStepEvent(caseId, "onboarding", "DATA_VALIDATION", "COMPLETED", variables);
+            eventPublisher.inOwnTransaction(() -> eventPublisher.publishInteractionStepEvent(caseId, "onboarding",
+                    "DATA_VALIDATION", "COMPLETED", variables));
         }
 
         return variables;
@@ -122,7 +125,8 @@ public class FlowableExternalWorker {
                 "ocrStatus", "SUCCESS");
 
         if (caseId != null) {
-            eventPublisher.publishPerformanceEvent(caseId, "OCR_PROCESSING", 500, "SUCCESS");
+            eventPublisher.inOwnTransaction(
+                    () -> eventPublisher.publishPerformanceEvent(caseId, "OCR_PROCESSING", 500, "SUCCESS"));
         }
 
         return variables;
@@ -134,8 +138,8 @@ public class FlowableExternalWorker {
         Map<String, Object> variables = Map.of("complianceStatus", "PASSED");
 
         if (caseId != null) {
-            eventPublisher.publishComplianceEvent(caseId, "N/A", "AML_CHECK", "PASSED",
-                    Map.of("reason", "Applicant is clear"));
+            eventPublisher.inOwnTransaction(() -> eventPublisher.publishComplianceEvent(caseId, "N/A", "AML_CHECK",
+                    "PASSED", Map.of("reason", "Applicant is clear")));
         }
 
         return variables;
@@ -147,16 +151,22 @@ public class FlowableExternalWorker {
         String accountNumber = "ACC" + System.currentTimeMillis();
 
         if (caseId != null) {
-            caseRepository.findById(UUID.fromString(caseId)).ifPresent(caseEntity -> {
-                caseEntity.setStatus("APPROVED");
-                caseRepository.save(caseEntity);
-                log.info("Case {} updated to APPROVED", caseId);
+            UUID caseUuid = UUID.fromString(caseId);
+            // The status change and its events commit together
+            caseMutations.run(caseUuid, "approveCase", () -> {
+                Integer version = caseRepository.findById(caseUuid).map(caseEntity -> {
+                    caseEntity.setStatus("APPROVED");
+                    Integer updatedVersion = caseRepository.saveAndFlush(caseEntity).getVersion();
+                    log.info("Case {} updated to APPROVED", caseId);
+                    return updatedVersion;
+                }).orElse(null);
+
+                eventPublisher.publishAccountCreatedEvent(caseId, UUID.randomUUID().toString(), accountNumber,
+                        "Customer", "SAVINGS");
+                // Only the status changed; case_data is untouched, so the patch is empty
+                eventPublisher.publishCaseUpdateEvent(caseId, "onboarding", Map.of(), version,
+                        Map.of("status", "APPROVED", "accountNumber", accountNumber));
             });
-
-            eventPublisher.publishAccountCreatedEvent(caseId, UUID.randomUUID().toString(), accountNumber,
-                    "Customer", "SAVINGS");
-            eventPublisher.publishCaseUpdateEvent(caseId, "onboarding", Map.of("accountNumber", accountNumber),
-                    Map.of("status", "APPROVED"));
         }
 
         return Map.of("accountNumber", accountNumber, "accountCreated", true);
@@ -167,8 +177,8 @@ public class FlowableExternalWorker {
         log.info("Finalizing Workflow for Case: {}", caseId);
 
         if (caseId != null) {
-            eventPublisher.publishWorkflowStateEvent(processInstanceId, "onboarding", "RUNNING", "COMPLETED",
-                    Map.of("caseId", caseId));
+            eventPublisher.inOwnTransaction(() -> eventPublisher.publishWorkflowStateEvent(processInstanceId,
+                    "onboarding", "RUNNING", "COMPLETED", Map.of("caseId", caseId)));
         }
 
         try {
@@ -196,9 +206,9 @@ public class FlowableExternalWorker {
                     "status", "COMPLETED"
             );
 
-            eventPublisher.publishSystemErrorEvent(caseId, processInstanceId,
+            eventPublisher.inOwnTransaction(() -> eventPublisher.publishSystemErrorEvent(caseId, processInstanceId,
                     "GLOBAL_CANCEL", "CANCEL_REQUESTED", "Process cancelled by global cancel message",
-                    "INFO", false, cleanupRecord);
+                    "INFO", false, cleanupRecord));
 
             updateCaseStatus(caseId, "CANCELLED", "Process cancelled globally");
 
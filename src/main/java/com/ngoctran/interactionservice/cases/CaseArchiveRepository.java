@@ -0,0 +1,121 @@
+package com.ngoctran.interactionservice.cases;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Cold storage for terminal cases (flw_case_archive).
+ *
+ * A case is archived by moving its whole row into a single lz4-compressed JSONB
+ * payload; only the columns needed to look it up stay as plain columns. The
+ * case's flw_task rows (which reference flw_case) move into the payload under
+ * {@code tasks}. Archived cases are read-only and are rehydrated into a detached
+ * {@link CaseEntity}.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CaseArchiveRepository {
+
+    private static final String ARCHIVE_CHUNK_SQL = """
+            WITH candidates AS (
+                SELECT id FROM flw_case
+                WHERE status IN (%s) AND updated_at < now() - make_interval(days => ?)
+                ORDER BY updated_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), tasks AS (
+                DELETE FROM flw_task t USING candidates k
+                WHERE t.case_id = k.id
+                RETURNING t.*
+            ), moved AS (
+                DELETE FROM flw_case c USING candidates k
+                WHERE c.id = k.id
+                RETURNING c.*
+            )
+            INSERT INTO flw_case_archive (id, customer_id, case_definition_key, status, created_at,
+                                          updated_at, archived_at, payload)
+            SELECT m.id, m.customer_id, m.case_definition_key, m.status, m.created_at, m.updated_at, now(),
+                   to_jsonb(m) || jsonb_build_object('tasks', COALESCE(
+                       (SELECT jsonb_agg(to_jsonb(t) ORDER BY t.created_at) FROM tasks t WHERE t.case_id = m.id),
+                       '[]'::jsonb))
+            FROM moved m
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Move up to {@code limit} terminal cases not updated for {@code olderThanDays} into the archive
+     */
+    public int archiveChunk(List<String> statuses, int olderThanDays, int limit) {
+        String placeholders = String.join(", ", Collections.nCopies(statuses.size(), "?"));
+        List<Object> args = new ArrayList<>(statuses);
+        args.add(olderThanDays);
+        args.add(limit);
+        return jdbcTemplate.update(ARCHIVE_CHUNK_SQL.formatted(placeholders), args.toArray());
+    }
+
+    public Optional<CaseEntity> findById(UUID caseId) {
+        return jdbcTemplate.query("SELECT payload FROM flw_case_archive WHERE id = ?",
+                (rs, rowNum) -> rs.getString(1), caseId)
+                .stream().findFirst()
+                .map(this::rehydrate);
+    }
+
+    private CaseEntity rehydrate(String payload) {
+        JsonNode row;
+        try {
+            row = objectMapper.readTree(payload);
+        } catch (Exception e) {
+            throw new RuntimeException("Corrupt archived case payload", e);
+        }
+
+        CaseEntity entity = new CaseEntity();
+        entity.setId(UUID.fromString(row.get("id").asText()));
+        entity.setVersion(row.path("version").isNumber() ? row.get("version").asInt() : null);
+        entity.setCaseDefinitionKey(text(row, "case_definition_key"));
+        entity.setCaseDefinitionVersion(text(row, "case_definition_version"));
+        entity.setCustomerId(text(row, "customer_id"));
+        entity.setCurrentStep(text(row, "current_step"));
+        entity.setStatus(text(row, "status"));
+        entity.setWorkflowInstanceId(text(row, "workflow_instance_id"));
+        entity.setCaseData(text(row, "case_data"));
+        entity.setAuditTrail(text(row, "audit_trail"));
+        entity.setSla(text(row, "sla"));
+        entity.setWorkflowState(text(row, "workflow_state"));
+        entity.setEpicData(text(row, "epic_data"));
+        entity.setComplianceStatus(text(row, "compliance_status"));
+        entity.setJointAccountData(text(row, "joint_account_data"));
+        entity.setBpmnProcessId(text(row, "bpmn_process_id"));
+        entity.setExpiresAt(instant(row, "expires_at"));
+        entity.setCreatedAt(instant(row, "created_at"));
+        entity.setUpdatedAt(instant(row, "updated_at"));
+        return entity;
+    }
+
+    /**
+     * Text columns come back as JSON strings, JSONB columns as nested JSON
+     */
+    private static String text(JsonNode row, String column) {
+        JsonNode value = row.get(column);
+        if (value == null || value.isNull())
+            return null;
+        return value.isTextual() ? value.asText() : value.toString();
+    }
+
+    private static Instant instant(JsonNode row, String column) {
+        String value = text(row, column);
+        return value != null ? OffsetDateTime.parse(value).toInstant() : null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ngoctran.interactionservice.cases;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Moves terminal cases older than {@code app.case.archive.older-than-days} out of
+ * the hot flw_case table into flw_case_archive, one short transaction per chunk.
+ * Reads still find them through {@link MyCaseService#getCase}.
+ */
+@Component
+@Slf4j
+public class CaseArchiver {
+
+    private final CaseArchiveRepository archiveRepo;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter casesArchived;
+
+    @Value("${app.case.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.case.archive.statuses:COMPLETED,APPROVED,REJECTED,CANCELLED}")
+    private List<String> terminalStatuses;
+
+    @Value("${app.case.archive.older-than-days:90}")
+    private int olderThanDays;
+
+    @Value("${app.case.archive.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.case.archive.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    public CaseArchiver(CaseArchiveRepository archiveRepo, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.archiveRepo = archiveRepo;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.casesArchived = meterRegistry.counter("case.archive.archived");
+    }
+
+    @Scheduled(cron = "${app.case.archive.cron:0 30 2 * * *}")
+    public void archive() {
+        if (!enabled)
+            return;
+
+        long total = 0;
+        int chunks = 0;
+        try {
+            while (chunks < maxChunksPerRun) {
+                Integer moved = transactionTemplate.execute(
+                        status -> archiveRepo.archiveChunk(terminalStatuses, olderThanDays, chunkSize));
+                chunks++;
+                total += moved;
+                casesArchived.increment(moved);
+                if (moved < chunkSize)
+                    break;
+            }
+        } catch (Exception e) {
+            log.error("Case archival failed after {} chunks: {}", chunks, e.getMessage());
+        }
+
+        if (total > 0) {
+            log.info("Archived {} terminal cases older than {} days in {} chunks", total, olderThanDays, chunks);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.ngoctran.interactionservice.cases;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Case Audit Entity - one row per submitted step (append-only)
+ *
+ * Replaces the ever-growing audit_trail JSON blob on flw_case. Rows are keyed
+ * by (case_id, seq); seq comes from a database sequence so it is monotonic and
+ * can be used as a cursor for paged history reads.
+ */
+@Entity
+@Table(name = "flw_case_audit")
+@IdClass(CaseAuditEntity.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaseAuditEntity {
+
+    @Id
+    @Column(name = "case_id", columnDefinition = "uuid")
+    private UUID caseId;
+
+    @Id
+    @Column(name = "seq")
+    private Long seq;
+
+    @Column(name = "step_name", length = 128)
+    private String stepName;
+
+    @Column(name = "submitted_at", columnDefinition = "timestamptz")
+    private Instant submittedAt;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "data", columnDefinition = "jsonb")
+    private Map<String, Object> data;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "client_context", columnDefinition = "jsonb")
+    private Map<String, Object> clientContext;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private UUID caseId;
+        private Long seq;
+    }
+}
@@ -0,0 +1,17 @@
+package com.ngoctran.interactionservice.cases;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CaseAuditRepository extends JpaRepository<CaseAuditEntity, CaseAuditEntity.Key> {
+
+    /**
+     * Keyset page of audit entries for a case, oldest first
+     */
+    List<CaseAuditEntity> findByCaseIdAndSeqGreaterThanOrderBySeqAsc(UUID caseId, long afterSeq, Pageable pageable);
+}
@@ -0,0 +1,149 @@
+package com.ngoctran.interactionservice.cases;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngoctran.interactionservice.dto.CaseHistoryPage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Case Audit Service - append-only step history for cases
+ *
+ * Writes go straight to flw_case_audit with JDBC batch inserts (seq is assigned
+ * by the database sequence), reads are keyset-paginated on (case_id, seq).
+ */
+@Service
+@Slf4j
+public class CaseAuditService {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO flw_case_audit (case_id, step_name, submitted_at, data, client_context)
+            VALUES (?, ?, ?, CAST(? AS jsonb), CAST(? AS jsonb))
+            """;
+
+    private static final int MAX_PAGE_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CaseAuditRepository auditRepo;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.case.audit.batch-size:200}")
+    private int batchSize;
+
+    public CaseAuditService(JdbcTemplate jdbcTemplate, CaseAuditRepository auditRepo, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.auditRepo = auditRepo;
+        this.objectMapper = objectMapper;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Append a single step entry
+     */
+    @Transactional
+    public void append(UUID caseId, String stepName, Map<String, Object> data, Map<String, Object> clientContext) {
+        appendAll(List.of(CaseAuditEntity.builder()
+                .caseId(caseId)
+                .stepName(stepName)
+                .submittedAt(Instant.now())
+                .data(data)
+                .clientContext(clientContext)
+                .build()));
+    }
+
+    /**
+     * Append many entries using JDBC batch inserts
+     */
+    @Transactional
+    public void appendAll(List<CaseAuditEntity> entries) {
+        if (entries.isEmpty())
+            return;
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, entries, batchSize, (ps, entry) -> {
+            ps.setObject(1, entry.getCaseId());
+            ps.setString(2, entry.getStepName());
+            ps.setTimestamp(3, Timestamp.from(entry.getSubmittedAt() != null ? entry.getSubmittedAt() : Instant.now()));
+            setJson(ps, 4, entry.getData());
+            setJson(ps, 5, entry.getClientContext());
+        });
+        log.debug("Appended {} audit entries", entries.size());
+    }
+
+    /**
+     * Read one page of history after the given cursor
+     */
+    @Transactional(readOnly = true)
+    public CaseHistoryPage getHistoryPage(UUID caseId, Long afterSeq, int limit) {
+        return readPage(caseId, afterSeq, limit);
+    }
+
+    private CaseHistoryPage readPage(UUID caseId, Long afterSeq, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long cursor = afterSeq != null ? afterSeq : 0L;
+
+        // Fetch one extra row to know whether another page exists
+        List<CaseAuditEntity> rows = auditRepo.findByCaseIdAndSeqGreaterThanOrderBySeqAsc(
+                caseId, cursor, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<CaseAuditEntity> entries = hasMore ? rows.subList(0, pageSize) : rows;
+        Long nextCursor = entries.isEmpty() ? null : entries.get(entries.size() - 1).getSeq();
+
+        return CaseHistoryPage.builder()
+                .caseId(caseId)
+                .entries(entries)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Stream the full history as NDJSON, one short read-only transaction per page,
+     * so no transaction or result set is held open while the client reads.
+     */
+    public void writeHistory(UUID caseId, OutputStream out) throws IOException {
+        Long cursor = null;
+        CaseHistoryPage page;
+        do {
+            Long after = cursor;
+            page = readOnlyTransaction.execute(status -> readPage(caseId, after, MAX_PAGE_SIZE));
+            for (CaseAuditEntity entry : page.getEntries()) {
+                out.write(objectMapper.writeValueAsBytes(entry));
+                out.write('\n');
+            }
+            out.flush();
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
+    }
+
+    private void setJson(PreparedStatement ps, int index, Map<String, Object> value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.VARCHAR);
+            return;
+        }
+        try {
+            ps.setString(index, objectMapper.writeValueAsString(value));
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize audit entry to JSON", e);
+        }
+    }
+}
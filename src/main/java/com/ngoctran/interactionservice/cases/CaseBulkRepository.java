@@ -0,0 +1,64 @@
+package com.ngoctran.interactionservice.cases;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * JDBC batch inserts for bulk case creation.
+ *
+ * Ids and timestamps are assigned in the application before the insert, so rows
+ * can be sent as multi-statement JDBC batches instead of one persist per case.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class CaseBulkRepository {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO flw_case (id, version, case_definition_key, customer_id, status, case_data,
+                                  created_at, updated_at)
+            VALUES (?, 0, ?, ?, ?, CAST(? AS jsonb), ?, ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.case.bulk.batch-size:500}")
+    private int batchSize;
+
+    /**
+     * Insert new cases; entities must not be persisted yet
+     */
+    public void insertAll(List<CaseEntity> cases) {
+        if (cases.isEmpty())
+            return;
+
+        Instant now = Instant.now();
+        for (CaseEntity entity : cases) {
+            if (entity.getId() == null) {
+                entity.setId(UUID.randomUUID());
+            }
+            entity.setVersion(0);
+            entity.setCreatedAt(now);
+            entity.setUpdatedAt(now);
+        }
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, cases, batchSize, (ps, entity) -> {
+            ps.setObject(1, entity.getId());
+            ps.setString(2, entity.getCaseDefinitionKey());
+            ps.setString(3, entity.getCustomerId());
+            ps.setString(4, entity.getStatus());
+            ps.setString(5, entity.getCaseData());
+            ps.setTimestamp(6, Timestamp.from(entity.getCreatedAt()));
+            ps.setTimestamp(7, Timestamp.from(entity.getUpdatedAt()));
+        });
+        log.debug("Batch-inserted {} cases", cases.size());
+    }
+}
@@ -0,0 +1,138 @@
+package com.ngoctran.interactionservice.cases;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optimistic-lock contention counters for case mutations.
+ *
+ * Totals are exported as Micrometer counters tagged by operation; per-case
+ * detail (bounded to the most recently contended cases) is served by the
+ * {@code /actuator/casecontention} endpoint.
+ */
+@Component
+@Endpoint(id = "casecontention")
+public class CaseContentionMetrics {
+
+    private static final int HOT_CASES_LIMIT = 20;
+
+    private final MeterRegistry meterRegistry;
+    private final int maxTrackedCases;
+
+    private final Map<UUID, CaseStats> perCase = new ConcurrentHashMap<>();
+    private final AtomicLong conflicts = new AtomicLong();
+    private final AtomicLong recovered = new AtomicLong();
+    private final AtomicLong exhausted = new AtomicLong();
+
+    public CaseContentionMetrics(MeterRegistry meterRegistry,
+            @Value("${app.case.contention.max-tracked-cases:1000}") int maxTrackedCases) {
+        this.meterRegistry = meterRegistry;
+        this.maxTrackedCases = maxTrackedCases;
+    }
+
+    /**
+     * An attempt lost the version check and will be retried (or given up)
+     */
+    public void recordConflict(UUID caseId, String operation) {
+        conflicts.incrementAndGet();
+        meterRegistry.counter("case.mutation.conflicts", "operation", operation).increment();
+        stats(caseId).conflicts.incrementAndGet();
+    }
+
+    /**
+     * A mutation succeeded after one or more conflicts
+     */
+    public void recordRecovered(UUID caseId, String operation) {
+        recovered.incrementAndGet();
+        meterRegistry.counter("case.mutation.recovered", "operation", operation).increment();
+        stats(caseId).recovered.incrementAndGet();
+    }
+
+    /**
+     * A mutation ran out of attempts; the conflict is surfaced to the caller
+     */
+    public void recordExhausted(UUID caseId, String operation) {
+        exhausted.incrementAndGet();
+        meterRegistry.counter("case.mutation.retries.exhausted", "operation", operation).increment();
+        stats(caseId).exhausted.incrementAndGet();
+    }
+
+    @ReadOperation
+    public Map<String, Object> contention() {
+        List<Map<String, Object>> hotCases = perCase.entrySet().stream()
+                .sorted(Comparator.comparingLong(
+                        (Map.Entry<UUID, CaseStats> e) -> e.getValue().conflicts.get()).reversed())
+                .limit(HOT_CASES_LIMIT)
+                .map(e -> e.getValue().toMap(e.getKey()))
+                .toList();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("conflicts", conflicts.get());
+        result.put("recovered", recovered.get());
+        result.put("exhausted", exhausted.get());
+        result.put("trackedCases", perCase.size());
+        result.put("hotCases", hotCases);
+        return result;
+    }
+
+    @ReadOperation
+    public Map<String, Object> caseContention(@Selector String caseId) {
+        UUID id = UUID.fromString(caseId);
+        CaseStats stats = perCase.get(id);
+        return stats != null ? stats.toMap(id) : Map.of("caseId", caseId, "conflicts", 0);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        perCase.clear();
+        conflicts.set(0);
+        recovered.set(0);
+        exhausted.set(0);
+    }
+
+    private CaseStats stats(UUID caseId) {
+        CaseStats stats = perCase.computeIfAbsent(caseId, id -> new CaseStats());
+        stats.lastConflictAt = Instant.now();
+        if (perCase.size() > maxTrackedCases) {
+            evictColdest();
+        }
+        return stats;
+    }
+
+    private void evictColdest() {
+        perCase.entrySet().stream()
+                .min(Comparator.comparing((Map.Entry<UUID, CaseStats> e) -> e.getValue().lastConflictAt))
+                .ifPresent(e -> perCase.remove(e.getKey(), e.getValue()));
+    }
+
+    private static class CaseStats {
+        final AtomicLong conflicts = new AtomicLong();
+        final AtomicLong recovered = new AtomicLong();
+        final AtomicLong exhausted = new AtomicLong();
+        volatile Instant lastConflictAt = Instant.now();
+
+        Map<String, Object> toMap(UUID caseId) {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("caseId", caseId.toString());
+            map.put("conflicts", conflicts.get());
+            map.put("recovered", recovered.get());
+            map.put("exhausted", exhausted.get());
+            map.put("lastConflictAt", lastConflictAt.toString());
+            return map;
+        }
+    }
+}
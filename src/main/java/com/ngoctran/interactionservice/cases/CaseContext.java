@@ -0,0 +1,112 @@
+package com.ngoctran.interactionservice.cases;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngoctran.interactionservice.cases.section.ComplianceStatusData;
+import com.ngoctran.interactionservice.cases.section.EpicData;
+import com.ngoctran.interactionservice.cases.section.JsonSection;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Unit-of-work view of a single case.
+ *
+ * Holds the loaded entity and its JSON sections. Each section is parsed on
+ * first access into its typed model and reused for the rest of the
+ * transaction; only sections that were changed are serialized back onto the
+ * entity at flush time.
+ */
+public class CaseContext {
+
+    private final CaseEntity entity;
+    private final ObjectMapper objectMapper;
+    private final Map<CaseSection, JsonSection<?>> sections = new EnumMap<>(CaseSection.class);
+
+    CaseContext(CaseEntity entity, ObjectMapper objectMapper) {
+        this.entity = entity;
+        this.objectMapper = objectMapper;
+    }
+
+    public CaseEntity getEntity() {
+        return entity;
+    }
+
+    public Map<String, Object> caseData() {
+        return mapSection(CaseSection.CASE_DATA);
+    }
+
+    public Map<String, Object> workflowState() {
+        return mapSection(CaseSection.WORKFLOW_STATE);
+    }
+
+    public EpicData epicData() {
+        return section(CaseSection.EPIC_DATA, EpicData.class).get();
+    }
+
+    public ComplianceStatusData complianceStatus() {
+        return section(CaseSection.COMPLIANCE_STATUS, ComplianceStatusData.class).get();
+    }
+
+    public Map<String, Object> jointAccountData() {
+        return mapSection(CaseSection.JOINT_ACCOUNT_DATA);
+    }
+
+    /**
+     * Replace a section wholesale. Values that are not already of the section's
+     * type (e.g. a plain Map for a typed section) are converted once here.
+     */
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void replace(CaseSection section, Object value) {
+        Object converted = value != null ? value : Map.of();
+        if (!section.getType().isInstance(converted)) {
+            converted = objectMapper.convertValue(converted, section.getType());
+        } else if (converted instanceof Map<?, ?> map) {
+            converted = new HashMap<>(map);
+        }
+        JsonSection target = section(section, section.getType());
+        target.set(converted);
+    }
+
+    /**
+     * Flag a section as changed after mutating the object returned by its accessor
+     */
+    public void markDirty(CaseSection section) {
+        section(section, section.getType()).markDirty();
+    }
+
+    public boolean isDirty() {
+        return sections.values().stream().anyMatch(JsonSection::isDirty);
+    }
+
+    Set<CaseSection> dirtySections() {
+        return sections.entrySet().stream()
+                .filter(e -> e.getValue().isDirty())
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+
+    String toJson(CaseSection section) {
+        return sections.get(section).toJson();
+    }
+
+    /**
+     * Forget parsed state after flushing; the entity now holds the serialized values
+     */
+    void clearDirty() {
+        sections.clear();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> mapSection(CaseSection section) {
+        return (Map<String, Object>) section(section, Map.class).get();
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> JsonSection<T> section(CaseSection section, Class<T> type) {
+        return (JsonSection<T>) sections.computeIfAbsent(section,
+                s -> new JsonSection<>(s.read(entity), s.getType(), objectMapper));
+    }
+}
@@ -1,10 +1,13 @@
 package com.ngoctran.interactionservice.cases;
 
+import com.ngoctran.interactionservice.dto.CaseHistoryPage;
+import com.ngoctran.interactionservice.dto.CasePage;
 import com.ngoctran.interactionservice.dto.NextStepResponse;
 import com.ngoctran.interactionservice.dto.StepSubmissionDto;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -16,6 +19,7 @@ import java.util.UUID;
 public class CaseController {
 
     private final MyCaseService myCaseService;
+    private final CaseAuditService caseAuditService;
 
     @PostMapping
     public ResponseEntity<?> createCase(@RequestBody(required = false) Map<String, Object> initialData) {
@@ -23,11 +27,29 @@ public class CaseController {
         return ResponseEntity.ok(Map.of("caseId", caseId));
     }
 
+    @PostMapping("/bulk")
+    public ResponseEntity<?> createCases(@RequestBody List<Map<String, Object>> initialDataList) {
+        List<UUID> caseIds = myCaseService.createCases(initialDataList);
+        return ResponseEntity.ok(Map.of("count", caseIds.size(), "caseIds", caseIds));
+    }
+
     @GetMapping
-    public ResponseEntity<List<CaseEntity>> listCases(
+    public ResponseEntity<CasePage> listCases(
+            @RequestParam(required = false) String customerId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "false") boolean includeData) {
+        return ResponseEntity.ok(myCaseService.listCases(customerId, status, cursor, limit, includeData));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportCases(
             @RequestParam(required = false) String customerId,
-            @RequestParam(required = false) String status) {
-        return ResponseEntity.ok(myCaseService.listCases(customerId, status));
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "false") boolean includeData) {
+        StreamingResponseBody body = out -> myCaseService.exportCases(customerId, status, includeData, out);
+        return ResponseEntity.ok(body);
     }
 
     @GetMapping("/{caseId}")
@@ -52,9 +74,17 @@ public class CaseController {
     }
 
     @GetMapping("/{caseId}/history")
-    public ResponseEntity<?> getHistory(@PathVariable UUID caseId) {
-        CaseEntity caseEntity = myCaseService.getCase(caseId);
-        return ResponseEntity.ok(caseEntity.getAuditTrail());
+    public ResponseEntity<CaseHistoryPage> getHistory(
+            @PathVariable UUID caseId,
+            @RequestParam(required = false) Long afterSeq,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(caseAuditService.getHistoryPage(caseId, afterSeq, limit));
+    }
+
+    @GetMapping(value = "/{caseId}/history/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamHistory(@PathVariable UUID caseId) {
+        StreamingResponseBody body = out -> caseAuditService.writeHistory(caseId, out);
+        return ResponseEntity.ok(body);
     }
 
     @GetMapping("/definitions/{key}/schema")
@@ -12,7 +12,11 @@ import java.util.UUID;
 @Entity
 @Table(name = "flw_case", indexes = {
         @Index(name = "idx_onboarding_case_status", columnList = "status"),
-        @Index(name = "idx_onboarding_case_workflow_instance", columnList = "workflow_instance_id")
+        @Index(name = "idx_onboarding_case_workflow_instance", columnList = "workflow_instance_id"),
+        @Index(name = "idx_flow_case_created_id", columnList = "created_at DESC, id DESC"),
+        @Index(name = "idx_flow_case_status_created_id", columnList = "status, created_at DESC, id DESC"),
+        @Index(name = "idx_flow_case_customer_created_id", columnList = "customer_id, created_at DESC, id DESC"),
+        @Index(name = "idx_flow_case_resume_token_hash_uq", columnList = "resume_token_hash", unique = true)
 })
 @NoArgsConstructor
 @AllArgsConstructor
@@ -60,6 +64,10 @@ public class CaseEntity {
     @Column(name = "resume_token", columnDefinition = "text")
     private String resumeToken;
 
+    // SHA-256 (hex) of the resume token; the plain token is not stored
+    @Column(name = "resume_token_hash", length = 64)
+    private String resumeTokenHash;
+
     @Column(name = "workflow_state", columnDefinition = "text")
     @JdbcTypeCode(SqlTypes.JSON)
     private String workflowState;
@@ -220,6 +228,14 @@ public class CaseEntity {
         this.resumeToken = resumeToken;
     }
 
+    public String getResumeTokenHash() {
+        return resumeTokenHash;
+    }
+
+    public void setResumeTokenHash(String resumeTokenHash) {
+        this.resumeTokenHash = resumeTokenHash;
+    }
+
     public String getWorkflowState() {
         return workflowState;
     }
@@ -0,0 +1,159 @@
+package com.ngoctran.interactionservice.cases;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Reclaims PAUSED cases whose resume window ({@code expires_at}) has passed.
+ *
+ * Each chunk is one set-based statement in its own short transaction: it claims up
+ * to {@code chunk-size} expired rows (SKIP LOCKED, so concurrent sweepers and
+ * resuming users never block each other) and deletes them together with their
+ * tasks, interaction sessions, process mappings, audit entries and workflow
+ * history (flw_task references flw_case without a cascade). A run stops when a chunk
+ * comes back short or after {@code max-chunks-per-run}, so no run holds locks for long.
+ */
+@Component
+@Slf4j
+public class CaseExpirySweeper {
+
+    private static final String SWEEP_CHUNK_SQL = """
+            WITH expired AS (
+                SELECT id FROM flw_case
+                WHERE status = 'PAUSED' AND expires_at < now()
+                ORDER BY expires_at
+                LIMIT ?
+                FOR UPDATE SKIP LOCKED
+            ), tasks AS (
+                DELETE FROM flw_task t USING expired e
+                WHERE t.case_id = e.id
+                RETURNING 1
+            ), sessions AS (
+                DELETE FROM flw_int i USING expired e
+                WHERE i.case_id = e.id::text
+                RETURNING 1
+            ), mappings AS (
+                DELETE FROM process_mapping m USING expired e
+                WHERE m.case_id = e.id::text
+                RETURNING 1
+            ), history AS (
+                DELETE FROM workflow_history h USING expired e
+                WHERE h.workflow_id = e.id::text
+                RETURNING 1
+            ), audit AS (
+                DELETE FROM flw_case_audit a USING expired e
+                WHERE a.case_id = e.id
+                RETURNING 1
+            ), cases AS (
+                DELETE FROM flw_case c USING expired e
+                WHERE c.id = e.id
+                RETURNING 1
+            )
+            SELECT (SELECT count(*) FROM cases),
+                   (SELECT count(*) FROM mappings),
+                   (SELECT count(*) FROM history),
+                   (SELECT count(*) FROM audit),
+                   (SELECT count(*) FROM tasks),
+                   (SELECT count(*) FROM sessions)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter casesDeleted;
+    private final Counter mappingsDeleted;
+    private final Counter historyDeleted;
+    private final Counter auditDeleted;
+    private final Counter tasksDeleted;
+    private final Counter sessionsDeleted;
+    private final Timer chunkTimer;
+    private final AtomicLong lastRunRowsPerSecond = new AtomicLong();
+
+    @Value("${app.case.sweeper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.case.sweeper.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.case.sweeper.max-chunks-per-run:200}")
+    private int maxChunksPerRun;
+
+    @Value("${app.case.sweeper.pause-between-chunks-ms:50}")
+    private long pauseBetweenChunksMs;
+
+    public CaseExpirySweeper(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.casesDeleted = meterRegistry.counter("case.sweeper.deleted", "table", "flw_case");
+        this.mappingsDeleted = meterRegistry.counter("case.sweeper.deleted", "table", "process_mapping");
+        this.historyDeleted = meterRegistry.counter("case.sweeper.deleted", "table", "workflow_history");
+        this.auditDeleted = meterRegistry.counter("case.sweeper.deleted", "table", "flw_case_audit");
+        this.tasksDeleted = meterRegistry.counter("case.sweeper.deleted", "table", "flw_task");
+        this.sessionsDeleted = meterRegistry.counter("case.sweeper.deleted", "table", "flw_int");
+        this.chunkTimer = meterRegistry.timer("case.sweeper.chunk");
+        meterRegistry.gauge("case.sweeper.last_run.cases_per_second", lastRunRowsPerSecond);
+    }
+
+    @Scheduled(fixedDelayString = "${app.case.sweeper.interval-ms:300000}",
+            initialDelayString = "${app.case.sweeper.initial-delay-ms:60000}")
+    public void sweep() {
+        if (!enabled)
+            return;
+
+        long started = System.nanoTime();
+        long total = 0;
+        int chunks = 0;
+        try {
+            while (chunks < maxChunksPerRun) {
+                long deleted = sweepChunk();
+                chunks++;
+                total += deleted;
+                if (deleted < chunkSize)
+                    break;
+                Thread.sleep(pauseBetweenChunksMs);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Case expiry sweep failed after {} chunks: {}", chunks, e.getMessage());
+        }
+
+        double seconds = Math.max((System.nanoTime() - started) / 1e9, 0.001);
+        lastRunRowsPerSecond.set(Math.round(total / seconds));
+        if (total > 0) {
+            log.info("Swept {} expired PAUSED cases in {} chunks ({} cases/s)", total, chunks,
+                    lastRunRowsPerSecond.get());
+        }
+    }
+
+    /**
+     * Delete one chunk of expired cases and their dependents; returns the number of cases removed
+     */
+    long sweepChunk() {
+        long[] counts = chunkTimer.record(() -> transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject(SWEEP_CHUNK_SQL, (rs, rowNum) -> new long[] {
+                        rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4), rs.getLong(5),
+                        rs.getLong(6) }, chunkSize)));
+
+        casesDeleted.increment(counts[0]);
+        mappingsDeleted.increment(counts[1]);
+        historyDeleted.increment(counts[2]);
+        auditDeleted.increment(counts[3]);
+        tasksDeleted.increment(counts[4]);
+        sessionsDeleted.increment(counts[5]);
+        log.debug("Sweeper chunk: cases={}, mappings={}, history={}, audit={}, tasks={}, sessions={}",
+                counts[0], counts[1], counts[2], counts[3], counts[4], counts[5]);
+        return counts[0];
+    }
+}
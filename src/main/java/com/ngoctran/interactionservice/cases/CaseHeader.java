@@ -0,0 +1,23 @@
+package com.ngoctran.interactionservice.cases;
+
+import java.util.UUID;
+
+/**
+ * Lightweight read-only view of a case row.
+ * Excludes the JSONB payload columns so hot paths can inspect case state
+ * without materializing case_data / audit_trail.
+ */
+public interface CaseHeader {
+
+    UUID getId();
+
+    String getCaseDefinitionKey();
+
+    String getCustomerId();
+
+    String getCurrentStep();
+
+    String getStatus();
+
+    String getBpmnProcessId();
+}
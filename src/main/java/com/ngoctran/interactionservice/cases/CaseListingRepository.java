@@ -0,0 +1,127 @@
+package com.ngoctran.interactionservice.cases;
+
+import com.ngoctran.interactionservice.dto.CasePage;
+import com.ngoctran.interactionservice.dto.CaseSummary;
+import com.ngoctran.interactionservice.exception.InvalidCursorException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Keyset-paginated case listing.
+ *
+ * Pages are ordered by (created_at, id) descending and continue from an opaque
+ * cursor, so every page is an index range scan on the matching composite index
+ * regardless of how deep the client has paged. JSONB columns are only selected
+ * when the caller asks for case data.
+ */
+@Repository
+@RequiredArgsConstructor
+public class CaseListingRepository {
+
+    private static final String SUMMARY_COLUMNS = """
+            id, case_definition_key, customer_id, current_step, status, bpmn_process_id,
+            expires_at, created_at, updated_at""";
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CasePage findPage(String customerId, String status, String cursor, int limit, boolean includeData) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(SUMMARY_COLUMNS);
+        if (includeData) {
+            sql.append(", case_data");
+        }
+        sql.append(" FROM flw_case WHERE 1 = 1");
+
+        List<Object> args = new ArrayList<>();
+        if (customerId != null) {
+            sql.append(" AND customer_id = ?");
+            args.add(customerId);
+        }
+        if (status != null) {
+            sql.append(" AND status = ?");
+            args.add(status);
+        }
+        if (cursor != null && !cursor.isBlank()) {
+            Cursor position = Cursor.decode(cursor);
+            sql.append(" AND (created_at, id) < (?, ?)");
+            args.add(Timestamp.from(position.createdAt()));
+            args.add(position.id());
+        }
+        // Fetch one extra row to know whether another page exists
+        sql.append(" ORDER BY created_at DESC, id DESC LIMIT ?");
+        args.add(pageSize + 1);
+
+        List<CaseSummary> rows = jdbcTemplate.query(sql.toString(),
+                (rs, rowNum) -> mapRow(rs, includeData), args.toArray());
+
+        boolean hasMore = rows.size() > pageSize;
+        List<CaseSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            CaseSummary last = items.get(items.size() - 1);
+            nextCursor = new Cursor(last.getCreatedAt(), last.getId()).encode();
+        }
+
+        return CasePage.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private CaseSummary mapRow(ResultSet rs, boolean includeData) throws SQLException {
+        return CaseSummary.builder()
+                .id(rs.getObject("id", UUID.class))
+                .caseDefinitionKey(rs.getString("case_definition_key"))
+                .customerId(rs.getString("customer_id"))
+                .currentStep(rs.getString("current_step"))
+                .status(rs.getString("status"))
+                .bpmnProcessId(rs.getString("bpmn_process_id"))
+                .expiresAt(toInstant(rs, "expires_at"))
+                .createdAt(toInstant(rs, "created_at"))
+                .updatedAt(toInstant(rs, "updated_at"))
+                .caseData(includeData ? rs.getString("case_data") : null)
+                .build();
+    }
+
+    private Instant toInstant(ResultSet rs, String column) throws SQLException {
+        OffsetDateTime value = rs.getObject(column, OffsetDateTime.class);
+        return value != null ? value.toInstant() : null;
+    }
+
+    /**
+     * Position of the last row of a page, encoded as an opaque URL-safe token
+     */
+    record Cursor(Instant createdAt, UUID id) {
+
+        String encode() {
+            String raw = createdAt + "|" + id;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new Cursor(Instant.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new InvalidCursorException(token, e);
+            }
+        }
+    }
+}
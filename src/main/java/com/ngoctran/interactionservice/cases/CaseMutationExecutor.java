@@ -0,0 +1,90 @@
+package com.ngoctran.interactionservice.cases;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a case mutation in its own transaction and re-runs it when the commit
+ * loses the {@code @Version} check against a concurrent writer.
+ *
+ * Each attempt starts a fresh transaction, so the mutation re-reads the latest
+ * row and re-applies its change on top of it (retry-with-remerge). Mutations must
+ * therefore be expressed against the state they read. Events belong inside the
+ * callback (the outbox row commits or rolls back with the change); keep
+ * non-transactional side effects (BPMN signals, REST calls) outside it.
+ */
+@Component
+@Slf4j
+public class CaseMutationExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final CaseContentionMetrics contentionMetrics;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    public CaseMutationExecutor(PlatformTransactionManager transactionManager,
+            CaseContentionMetrics contentionMetrics,
+            @Value("${app.case.lock-retry.max-attempts:4}") int maxAttempts,
+            @Value("${app.case.lock-retry.backoff-ms:20}") long backoffMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.contentionMetrics = contentionMetrics;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMs = backoffMs;
+    }
+
+    public <T> T execute(UUID caseId, String operation, Supplier<T> mutation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // The caller owns the transaction; only the outermost boundary can retry
+            return mutation.get();
+        }
+
+        for (int attempt = 1;; attempt++) {
+            try {
+                T result = transactionTemplate.execute(status -> mutation.get());
+                if (attempt > 1) {
+                    contentionMetrics.recordRecovered(caseId, operation);
+                }
+                return result;
+            } catch (OptimisticLockingFailureException e) {
+                contentionMetrics.recordConflict(caseId, operation);
+                if (attempt >= maxAttempts) {
+                    contentionMetrics.recordExhausted(caseId, operation);
+                    log.warn("Giving up {} on case {} after {} conflicting attempts", operation, caseId, attempt);
+                    throw e;
+                }
+                log.debug("Version conflict on {} for case {} (attempt {}), retrying", operation, caseId, attempt);
+                backoff(attempt);
+            }
+        }
+    }
+
+    public void run(UUID caseId, String operation, Runnable mutation) {
+        execute(caseId, operation, () -> {
+            mutation.run();
+            return null;
+        });
+    }
+
+    private void backoff(int attempt) {
+        // Exponential with full jitter so colliding writers spread out instead of re-colliding
+        long ceiling = backoffMs << Math.min(attempt - 1, 6);
+        long delay = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        if (delay == 0)
+            return;
+        try {
+            Thread.sleep(delay);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while retrying case mutation", e);
+        }
+    }
+}
@@ -1,9 +1,13 @@
 package com.ngoctran.interactionservice.cases;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
@@ -14,4 +18,40 @@ public interface CaseRepository extends JpaRepository<CaseEntity, UUID> {
 
     List<CaseEntity> findByCustomerIdAndStatus(String customerId, String status);
 
+    /**
+     * Load only the scalar columns of a case (no JSONB payloads)
+     */
+    Optional<CaseHeader> findHeaderById(UUID id);
+
+    /**
+     * Current row version; after a native update in the same transaction, the version it wrote
+     */
+    @Query("SELECT c.version FROM CaseEntity c WHERE c.id = :caseId")
+    Optional<Integer> findVersionById(@Param("caseId") UUID caseId);
+
+    /**
+     * Resolve a resume token (by its hash) to the minimal columns needed to resume
+     */
+    Optional<ResumeTokenView> findByResumeTokenHash(String resumeTokenHash);
+
+    /**
+     * Delta write for a step submission.
+     * Merges the step fields into case_data server-side, so the document is
+     * never read back into the application.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = """
+            UPDATE flw_case SET
+                case_data = COALESCE(case_data, CAST('{}' AS jsonb)) || CAST(:stepData AS jsonb),
+                current_step = :currentStep,
+                bpmn_process_id = COALESCE(bpmn_process_id, :bpmnProcessId),
+                version = COALESCE(version, 0) + 1,
+                updated_at = now()
+            WHERE id = :caseId
+            """, nativeQuery = true)
+    int mergeStepData(@Param("caseId") UUID caseId,
+            @Param("stepData") String stepData,
+            @Param("currentStep") String currentStep,
+            @Param("bpmnProcessId") String bpmnProcessId);
+
 }
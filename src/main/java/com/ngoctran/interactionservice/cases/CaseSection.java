@@ -0,0 +1,42 @@
+package com.ngoctran.interactionservice.cases;
+
+import com.ngoctran.interactionservice.cases.section.ComplianceStatusData;
+import com.ngoctran.interactionservice.cases.section.EpicData;
+
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * JSON sections stored on a case row, with accessors to the raw column value
+ * and the Java type each section is parsed into
+ */
+public enum CaseSection {
+    CASE_DATA(Map.class, CaseEntity::getCaseData, CaseEntity::setCaseData),
+    WORKFLOW_STATE(Map.class, CaseEntity::getWorkflowState, CaseEntity::setWorkflowState),
+    EPIC_DATA(EpicData.class, CaseEntity::getEpicData, CaseEntity::setEpicData),
+    COMPLIANCE_STATUS(ComplianceStatusData.class, CaseEntity::getComplianceStatus, CaseEntity::setComplianceStatus),
+    JOINT_ACCOUNT_DATA(Map.class, CaseEntity::getJointAccountData, CaseEntity::setJointAccountData);
+
+    private final Class<?> type;
+    private final Function<CaseEntity, String> reader;
+    private final BiConsumer<CaseEntity, String> writer;
+
+    CaseSection(Class<?> type, Function<CaseEntity, String> reader, BiConsumer<CaseEntity, String> writer) {
+        this.type = type;
+        this.reader = reader;
+        this.writer = writer;
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    public String read(CaseEntity entity) {
+        return reader.apply(entity);
+    }
+
+    public void write(CaseEntity entity, String json) {
+        writer.accept(entity, json);
+    }
+}
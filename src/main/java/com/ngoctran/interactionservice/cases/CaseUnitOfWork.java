@@ -0,0 +1,109 @@
+package com.ngoctran.interactionservice.cases;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Transaction-scoped case cache.
+ *
+ * The first lookup of a case inside a transaction loads the entity once; later
+ * lookups in the same transaction reuse the same {@link CaseContext}, including
+ * already-parsed (typed) JSON sections. Dirty sections are written back right before
+ * commit so a read-modify-write chain ends in a single UPDATE.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CaseUnitOfWork {
+
+    private final CaseRepository caseRepo;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Get the context for a case, loading it on first use in the current transaction
+     */
+    public CaseContext get(UUID caseId) {
+        return find(caseId).orElseThrow(() -> new RuntimeException("Case not found: " + caseId));
+    }
+
+    /**
+     * Like {@link #get}, but empty when the case is not in flw_case
+     */
+    public Optional<CaseContext> find(UUID caseId) {
+        Map<UUID, CaseContext> contexts = boundContexts();
+        if (contexts == null) {
+            // No transaction: behave like a plain load, caller decides whether to flush
+            return load(caseId);
+        }
+        // computeIfAbsent does not cache a null result, so a miss is re-checked next time
+        return Optional.ofNullable(contexts.computeIfAbsent(caseId, id -> load(id).orElse(null)));
+    }
+
+    /**
+     * Drop a cached context, e.g. after the row was changed by a bulk/native update
+     */
+    public void evict(UUID caseId) {
+        Map<UUID, CaseContext> contexts = boundContexts();
+        if (contexts != null) {
+            contexts.remove(caseId);
+        }
+    }
+
+    /**
+     * Serialize dirty sections back onto the entity and save it
+     */
+    public void flush(CaseContext context) {
+        if (!context.isDirty())
+            return;
+
+        CaseEntity entity = context.getEntity();
+        Set<CaseSection> dirty = context.dirtySections();
+        for (CaseSection section : dirty) {
+            section.write(entity, context.toJson(section));
+        }
+        caseRepo.save(entity);
+        log.debug("Flushed sections {} for case {}", dirty, entity.getId());
+        context.clearDirty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<UUID, CaseContext> boundContexts() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        Map<UUID, CaseContext> contexts = (Map<UUID, CaseContext>) TransactionSynchronizationManager.getResource(this);
+        if (contexts == null) {
+            Map<UUID, CaseContext> created = new LinkedHashMap<>();
+            TransactionSynchronizationManager.bindResource(this, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    if (!readOnly) {
+                        created.values().forEach(CaseUnitOfWork.this::flush);
+                    }
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CaseUnitOfWork.this);
+                }
+            });
+            contexts = created;
+        }
+        return contexts;
+    }
+
+    private Optional<CaseContext> load(UUID caseId) {
+        return caseRepo.findById(caseId).map(entity -> new CaseContext(entity, objectMapper));
+    }
+}
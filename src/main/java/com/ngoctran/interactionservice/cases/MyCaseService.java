@@ -1,21 +1,30 @@
 package com.ngoctran.interactionservice.cases;
 
-import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngoctran.interactionservice.dto.CasePage;
+import com.ngoctran.interactionservice.dto.CaseSummary;
 import com.ngoctran.interactionservice.dto.NextStepResponse;
 import com.ngoctran.interactionservice.dto.StepSubmissionDto;
 import com.ngoctran.interactionservice.mapping.ProcessMappingRepository;
 import com.ngoctran.interactionservice.bpmn.BpmnProcessService;
+import com.ngoctran.interactionservice.cases.section.ComplianceCheckRecord;
+import com.ngoctran.interactionservice.cases.section.ComplianceStatusData;
+import com.ngoctran.interactionservice.cases.section.EpicData;
+import com.ngoctran.interactionservice.cases.section.Milestone;
 import com.ngoctran.interactionservice.compliance.ComplianceService;
 import com.ngoctran.interactionservice.dmn.DmnDecisionService;
+import com.ngoctran.interactionservice.events.CaseUpdateEvent;
 import com.ngoctran.interactionservice.events.WorkflowEventPublisher;
 import com.ngoctran.interactionservice.mapping.ProcessMappingService;
 import com.ngoctran.interactionservice.mapping.enums.EngineType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
@@ -35,13 +44,30 @@ public class MyCaseService {
     private final DmnDecisionService dmnDecisionService;
     private final WorkflowEventPublisher eventPublisher;
     private final CaseDefinitionRepository caseDefinitionRepo;
+    private final CaseAuditService caseAuditService;
+    private final CaseUnitOfWork caseUnitOfWork;
+    private final CaseListingRepository caseListingRepo;
+    private final CaseMutationExecutor caseMutations;
+    private final CaseBulkRepository caseBulkRepo;
+    private final CaseArchiveRepository caseArchiveRepo;
+    private final ResumeTokenLookup resumeTokenLookup;
+
+    @Value("${app.case.bulk.max-size:10000}")
+    private int maxBulkSize;
+
+    // Merge step data server-side (jsonb ||) instead of rewriting the whole case document
+    @Value("${app.case.delta-writes:true}")
+    private boolean deltaWrites;
 
     public MyCaseService(CaseRepository caseRepo, ObjectMapper objectMapper,
             ProcessMappingRepository processMappingRepo,
             ProcessMappingService processMappingService,
             BpmnProcessService bpmnProcessService, ComplianceService complianceService,
             DmnDecisionService dmnDecisionService, WorkflowEventPublisher eventPublisher,
-            CaseDefinitionRepository caseDefinitionRepo) {
+            CaseDefinitionRepository caseDefinitionRepo, CaseAuditService caseAuditService,
+            CaseUnitOfWork caseUnitOfWork, CaseListingRepository caseListingRepo,
+            CaseMutationExecutor caseMutations, CaseBulkRepository caseBulkRepo,
+            CaseArchiveRepository caseArchiveRepo, ResumeTokenLookup resumeTokenLookup) {
         this.caseRepo = caseRepo;
         this.objectMapper = objectMapper;
         this.processMappingRepo = processMappingRepo;
@@ -51,6 +77,13 @@ public class MyCaseService {
         this.dmnDecisionService = dmnDecisionService;
         this.eventPublisher = eventPublisher;
         this.caseDefinitionRepo = caseDefinitionRepo;
+        this.caseAuditService = caseAuditService;
+        this.caseUnitOfWork = caseUnitOfWork;
+        this.caseListingRepo = caseListingRepo;
+        this.caseMutations = caseMutations;
+        this.caseBulkRepo = caseBulkRepo;
+        this.caseArchiveRepo = caseArchiveRepo;
+        this.resumeTokenLookup = resumeTokenLookup;
     }
 
     @Transactional
@@ -71,91 +104,215 @@ public class MyCaseService {
         caseEntity = caseRepo.save(caseEntity);
         log.info("Created new case with ID: {} for customer: {}", caseEntity.getId(), caseEntity.getCustomerId());
 
-        // Publish case creation event
-        eventPublisher.publishCaseUpdateEvent(caseEntity.getId().toString(),
+        // Publish case creation event; the only one carrying the full data, later updates are deltas
+        eventPublisher.publishCaseSnapshotEvent(caseEntity.getId().toString(),
                 caseEntity.getCaseDefinitionKey(),
                 initialData,
+                caseEntity.getVersion(),
                 Map.of("action", "CREATE"));
 
         return caseEntity.getId();
     }
 
+    /**
+     * Create many cases in one transaction: rows go out as JDBC batch inserts and
+     * the creation events are published as one batch (one history batch write)
+     */
+    @Transactional
+    public List<UUID> createCases(List<Map<String, Object>> initialDataList) {
+        if (initialDataList.size() > maxBulkSize) {
+            throw new IllegalArgumentException(
+                    "Bulk request has " + initialDataList.size() + " cases, max is " + maxBulkSize);
+        }
+
+        List<CaseEntity> cases = new ArrayList<>(initialDataList.size());
+        for (Map<String, Object> initialData : initialDataList) {
+            CaseEntity caseEntity = new CaseEntity();
+            caseEntity.setStatus("ACTIVE");
+            if (initialData != null) {
+                if (initialData.containsKey("customerId")) {
+                    caseEntity.setCustomerId(String.valueOf(initialData.get("customerId")));
+                }
+                if (initialData.containsKey("caseDefinitionKey")) {
+                    caseEntity.setCaseDefinitionKey(String.valueOf(initialData.get("caseDefinitionKey")));
+                }
+                caseEntity.setCaseData(toJson(initialData));
+            }
+            cases.add(caseEntity);
+        }
+
+        caseBulkRepo.insertAll(cases);
+        log.info("Bulk-created {} cases", cases.size());
+
+        long now = System.currentTimeMillis();
+        List<CaseUpdateEvent> events = new ArrayList<>(cases.size());
+        for (int i = 0; i < cases.size(); i++) {
+            CaseEntity caseEntity = cases.get(i);
+            events.add(CaseUpdateEvent.builder()
+                    .caseId(caseEntity.getId().toString())
+                    .caseDefinitionKey(caseEntity.getCaseDefinitionKey())
+                    .snapshot(true)
+                    .version(caseEntity.getVersion())
+                    .caseData(initialDataList.get(i))
+                    .changes(Map.of("action", "CREATE"))
+                    .timestamp(now)
+                    .build());
+        }
+        eventPublisher.publishCaseUpdateEvents(events);
+
+        return cases.stream().map(CaseEntity::getId).toList();
+    }
+
     @Transactional(readOnly = true)
     public CaseEntity getCase(UUID caseId) {
-        return caseRepo.findById(caseId)
+        // Hot table first; terminal cases moved to cold storage are served (read-only) from the archive
+        return caseUnitOfWork.find(caseId)
+                .map(CaseContext::getEntity)
+                .or(() -> caseArchiveRepo.findById(caseId))
                 .orElseThrow(() -> new RuntimeException("Case not found: " + caseId));
     }
 
+    /**
+     * Load a case that is about to be modified; archived cases are never written back
+     */
+    private CaseEntity loadForUpdate(UUID caseId) {
+        return caseUnitOfWork.get(caseId).getEntity();
+    }
+
+    /**
+     * List cases one keyset page at a time (newest first)
+     */
     @Transactional(readOnly = true)
-    public List<CaseEntity> listCases(String customerId, String status) {
-        if (customerId != null && status != null) {
-            return caseRepo.findByCustomerIdAndStatus(customerId, status);
-        } else if (customerId != null) {
-            return caseRepo.findByCustomerId(customerId);
-        } else if (status != null) {
-            return caseRepo.findByStatus(status);
-        } else {
-            return caseRepo.findAll();
-        }
+    public CasePage listCases(String customerId, String status, String cursor, int limit, boolean includeData) {
+        return caseListingRepo.findPage(customerId, status, cursor, limit, includeData);
+    }
+
+    /**
+     * Export all matching cases as NDJSON, walking keyset pages so no single
+     * query or transaction spans the whole export
+     */
+    public void exportCases(String customerId, String status, boolean includeData, OutputStream out)
+            throws IOException {
+        String cursor = null;
+        CasePage page;
+        do {
+            page = caseListingRepo.findPage(customerId, status, cursor, CaseListingRepository.MAX_PAGE_SIZE,
+                    includeData);
+            for (CaseSummary summary : page.getItems()) {
+                out.write(objectMapper.writeValueAsBytes(summary));
+                out.write('\n');
+            }
+            out.flush();
+            cursor = page.getNextCursor();
+        } while (page.isHasMore());
     }
 
-    @Transactional
     public NextStepResponse submitStep(UUID caseId, StepSubmissionDto submission) {
         log.info("Submitting step for case {}: {}", caseId, submission.getStepName());
-        CaseEntity caseEntity = getCase(caseId);
+
+        // The state change and its events are retried together on version conflicts; signals fire once, after commit
+        StepOutcome outcome = caseMutations.execute(caseId, "submitStep", () -> {
+            StepOutcome merged = deltaWrites ? mergeStepDelta(caseId, submission) : mergeStep(caseId, submission);
+
+            // Publish interaction step event
+            eventPublisher.publishInteractionStepEvent(caseId.toString(),
+                    merged.caseDefinitionKey(),
+                    submission.getStepName(),
+                    "SUBMIT",
+                    submission.getStepData());
+
+            // The step fields were merged into case_data: publish exactly that as the delta
+            if (submission.getStepData() != null && !submission.getStepData().isEmpty()) {
+                eventPublisher.publishCaseUpdateEvent(caseId.toString(),
+                        merged.caseDefinitionKey(),
+                        submission.getStepData(),
+                        merged.version(),
+                        Map.of("action", "SUBMIT_STEP"));
+            }
+            return merged;
+        });
+
+        handleWorkflowSignals(caseId, outcome.bpmnProcessId(), submission);
+
+        // Next step context: stay on the submitted step while a BPMN process drives the case
+        String nextStep = outcome.bpmnProcessId() != null ? submission.getStepName() : "COMPLETED";
+        return new NextStepResponse(nextStep, new HashMap<>(), outcome.status());
+    }
+
+    /**
+     * What the caller needs from a committed step submission; {@code version} is the row version it wrote
+     */
+    private record StepOutcome(String caseDefinitionKey, String bpmnProcessId, String status, Integer version) {
+    }
+
+    private StepOutcome mergeStep(UUID caseId, StepSubmissionDto submission) {
+        CaseContext context = caseUnitOfWork.get(caseId);
+        CaseEntity caseEntity = context.getEntity();
 
         // 1. Update Case Data (Merge)
-        Map<String, Object> caseData = parseCaseData(caseEntity.getCaseData());
         if (submission.getStepData() != null) {
-            caseData.putAll(submission.getStepData());
+            context.caseData().putAll(submission.getStepData());
+            context.markDirty(CaseSection.CASE_DATA);
         }
-        caseEntity.setCaseData(toJson(caseData));
 
         // 2. Add to Audit Trail (History)
-        updateAuditTrail(caseEntity, submission);
+        appendAudit(caseId, submission);
 
         // 3. Update Current Step
         caseEntity.setCurrentStep(submission.getStepName());
 
-        // 4. Find and Handle Workflow Signals
+        // 4. Resolve the BPMN process to signal
         if (caseEntity.getBpmnProcessId() == null) {
             processMappingRepo.findRunningProcessesByCaseId(caseId)
                     .stream().findFirst()
                     .ifPresent(p -> caseEntity.setBpmnProcessId(p.getProcessInstanceId()));
         }
 
-        handleWorkflowSignals(caseEntity, submission);
+        // Written now rather than at commit so the delta event can carry the new version
+        caseUnitOfWork.flush(context);
+        CaseEntity saved = caseRepo.saveAndFlush(caseEntity);
+        return new StepOutcome(saved.getCaseDefinitionKey(), saved.getBpmnProcessId(), saved.getStatus(),
+                saved.getVersion());
+    }
 
-        caseRepo.save(caseEntity);
+    /**
+     * Delta-write variant of mergeStep: only the submitted step fields travel
+     * to the database, where they are merged into case_data in a single UPDATE
+     * and the audit entry is appended to flw_case_audit. Cost scales with the
+     * step payload, not with the size of the case document.
+     */
+    private StepOutcome mergeStepDelta(UUID caseId, StepSubmissionDto submission) {
+        CaseHeader header = caseRepo.findHeaderById(caseId)
+                .orElseThrow(() -> new RuntimeException("Case not found: " + caseId));
 
-        // Publish interaction step event
-        eventPublisher.publishInteractionStepEvent(caseId.toString(),
-                caseEntity.getCaseDefinitionKey(),
+        String bpmnProcessId = header.getBpmnProcessId();
+        if (bpmnProcessId == null) {
+            bpmnProcessId = processMappingRepo.findRunningProcessesByCaseId(caseId)
+                    .stream().findFirst()
+                    .map(p -> p.getProcessInstanceId())
+                    .orElse(null);
+        }
+
+        Map<String, Object> stepData = submission.getStepData() != null ? submission.getStepData() : Map.of();
+
+        int updated = caseRepo.mergeStepData(caseId,
+                toJson(stepData),
                 submission.getStepName(),
-                "SUBMIT",
-                submission.getStepData());
-
-        // 5. Determine Response (Next Step context)
-        String nextStep = "COMPLETED";
-        Map<String, Object> uiModel = new HashMap<>();
-
-        if (caseEntity.getBpmnProcessId() != null) {
-            try {
-                String processId = caseEntity.getBpmnProcessId();
-                // Query BPMN variables or state if needed
-                // For now, we'll keep the current step from the entity
-                nextStep = caseEntity.getCurrentStep();
-            } catch (Exception e) {
-                log.warn("Could not query BPMN progress for case {}: {}", caseId, e.getMessage());
-            }
+                bpmnProcessId);
+        if (updated == 0) {
+            throw new RuntimeException("Case not found: " + caseId);
         }
+        // The native update cleared the persistence context; drop any cached view of this case
+        caseUnitOfWork.evict(caseId);
+        appendAudit(caseId, submission);
 
-        return new NextStepResponse(nextStep, uiModel, caseEntity.getStatus());
+        // The row is locked by the update until commit, so this is the version it wrote
+        Integer version = caseRepo.findVersionById(caseId).orElse(null);
+        return new StepOutcome(header.getCaseDefinitionKey(), bpmnProcessId, header.getStatus(), version);
     }
 
     @SuppressWarnings("unchecked")
-    private void handleWorkflowSignals(CaseEntity caseEntity, StepSubmissionDto submission) {
-        String bpmnProcessId = caseEntity.getBpmnProcessId();
+    private void handleWorkflowSignals(UUID caseId, String bpmnProcessId, StepSubmissionDto submission) {
         if (bpmnProcessId == null)
             return;
 
@@ -172,50 +329,15 @@ public class MyCaseService {
                         Map.of("approved", approved, "reason", reason));
             }
         } catch (Exception e) {
-            log.error("Failed to signal BPMN process for case {}: {}", caseEntity.getId(), e.getMessage());
-        }
-    }
-
-    private void updateAuditTrail(CaseEntity caseEntity, StepSubmissionDto submission) {
-        try {
-            Map<String, Object> auditTrail = new HashMap<>();
-            if (caseEntity.getAuditTrail() != null && !caseEntity.getAuditTrail().isEmpty()) {
-                auditTrail = objectMapper.readValue(caseEntity.getAuditTrail(),
-                        new TypeReference<Map<String, Object>>() {
-                        });
-            }
-
-            @SuppressWarnings("unchecked")
-            List<Map<String, Object>> steps = (List<Map<String, Object>>) auditTrail.getOrDefault("steps",
-                    new ArrayList<>());
-
-            Map<String, Object> entry = new HashMap<>();
-            entry.put("stepName", submission.getStepName());
-            entry.put("submittedAt", Instant.now().toString());
-            entry.put("data", submission.getStepData());
-            entry.put("clientContext", submission.getClientContext());
-
-            steps.add(entry);
-            auditTrail.put("steps", steps);
-            auditTrail.put("lastUpdated", Instant.now().toString());
-
-            caseEntity.setAuditTrail(objectMapper.writeValueAsString(auditTrail));
-        } catch (Exception e) {
-            log.error("Failed to update audit trail for case {}", caseEntity.getId(), e);
+            log.error("Failed to signal BPMN process for case {}: {}", caseId, e.getMessage());
         }
     }
 
-    private Map<String, Object> parseCaseData(String json) {
-        if (json == null || json.isEmpty()) {
-            return new HashMap<>();
-        }
-        try {
-            return objectMapper.readValue(json, new TypeReference<Map<String, Object>>() {
-            });
-        } catch (Exception e) {
-            log.error("Failed to parse case data", e);
-            return new HashMap<>();
-        }
+    private void appendAudit(UUID caseId, StepSubmissionDto submission) {
+        caseAuditService.append(caseId,
+                submission.getStepName(),
+                submission.getStepData(),
+                submission.getClientContext());
     }
 
     private String toJson(Object obj) {
@@ -233,94 +355,94 @@ public class MyCaseService {
     /**
      * Set resume token for workflow resumability
      */
-    @Transactional
     public void setResumeToken(UUID caseId, String resumeToken) {
-        CaseEntity caseEntity = getCase(caseId);
-        caseEntity.setResumeToken(resumeToken);
-        caseRepo.save(caseEntity);
+        caseMutations.run(caseId, "setResumeToken", () -> {
+            CaseEntity caseEntity = loadForUpdate(caseId);
+            // Only the hash is persisted; validation looks the token up by hash
+            caseEntity.setResumeToken(null);
+            caseEntity.setResumeTokenHash(resumeToken != null ? resumeTokenLookup.hash(resumeToken) : null);
+            caseRepo.save(caseEntity);
+        });
+        resumeTokenLookup.invalidate(caseId);
         log.info("Set resume token for case: {}", caseId);
     }
 
     /**
-     * Validate resume token
+     * Validate resume token via the hashed-token index; never loads the case row
      */
     public boolean validateResumeToken(UUID caseId, String resumeToken) {
-        CaseEntity caseEntity = getCase(caseId);
-        return resumeToken.equals(caseEntity.getResumeToken());
+        return resumeTokenLookup.matches(caseId, resumeToken);
+    }
+
+    /**
+     * Resolve a resume token to (case_id, status, expires_at)
+     */
+    public Optional<ResumeTokenView> findByResumeToken(String resumeToken) {
+        return resumeTokenLookup.find(resumeToken);
     }
 
     /**
      * Update workflow state for resumability
      */
-    @Transactional
     public void updateWorkflowState(UUID caseId, Map<String, Object> workflowState) {
-        CaseEntity caseEntity = getCase(caseId);
-        caseEntity.setWorkflowState(toJson(workflowState));
-        caseRepo.save(caseEntity);
-        log.info("Updated workflow state for case: {}", caseId);
+        caseMutations.run(caseId, "updateWorkflowState", () -> {
+            caseUnitOfWork.get(caseId).replace(CaseSection.WORKFLOW_STATE, workflowState);
 
-        // Publish workflow state event
-        eventPublisher.publishWorkflowStateEvent(caseId.toString(),
-                "CASE_WORKFLOW",
-                "UPDATING",
-                "UPDATED",
-                workflowState);
+            // Publish workflow state event
+            eventPublisher.publishWorkflowStateEvent(caseId.toString(),
+                    "CASE_WORKFLOW",
+                    "UPDATING",
+                    "UPDATED",
+                    workflowState);
+        });
+        log.info("Updated workflow state for case: {}", caseId);
     }
 
     /**
      * Get workflow state
      */
     public Map<String, Object> getWorkflowState(UUID caseId) {
-        CaseEntity caseEntity = getCase(caseId);
-        return parseCaseData(caseEntity.getWorkflowState());
+        return caseUnitOfWork.get(caseId).workflowState();
     }
 
     /**
      * Update epic data (milestones and progress tracking)
      */
-    @Transactional
-    public void updateEpicData(UUID caseId, Map<String, Object> epicData) {
-        CaseEntity caseEntity = getCase(caseId);
-        caseEntity.setEpicData(toJson(epicData));
-        caseRepo.save(caseEntity);
+    public void updateEpicData(UUID caseId, EpicData epicData) {
+        caseMutations.run(caseId, "updateEpicData",
+                () -> caseUnitOfWork.get(caseId).replace(CaseSection.EPIC_DATA, epicData));
         log.info("Updated epic data for case: {}", caseId);
     }
 
     /**
      * Get epic data
      */
-    public Map<String, Object> getEpicData(UUID caseId) {
-        CaseEntity caseEntity = getCase(caseId);
-        return parseCaseData(caseEntity.getEpicData());
+    public EpicData getEpicData(UUID caseId) {
+        return caseUnitOfWork.get(caseId).epicData();
     }
 
     /**
      * Update compliance status
      */
-    @Transactional
-    public void updateComplianceStatus(UUID caseId, Map<String, Object> complianceStatus) {
-        CaseEntity caseEntity = getCase(caseId);
-        caseEntity.setComplianceStatus(toJson(complianceStatus));
-        caseRepo.save(caseEntity);
+    public void updateComplianceStatus(UUID caseId, ComplianceStatusData complianceStatus) {
+        caseMutations.run(caseId, "updateComplianceStatus",
+                () -> caseUnitOfWork.get(caseId).replace(CaseSection.COMPLIANCE_STATUS, complianceStatus));
         log.info("Updated compliance status for case: {}", caseId);
     }
 
     /**
      * Get compliance status
      */
-    public Map<String, Object> getComplianceStatus(UUID caseId) {
-        CaseEntity caseEntity = getCase(caseId);
-        return parseCaseData(caseEntity.getComplianceStatus());
+    public ComplianceStatusData getComplianceStatus(UUID caseId) {
+        return caseUnitOfWork.get(caseId).complianceStatus();
     }
 
     /**
      * Update joint account data
      */
-    @Transactional
     public void updateJointAccountData(UUID caseId, Map<String, Object> jointAccountData) {
-        CaseEntity caseEntity = getCase(caseId);
-        caseEntity.setJointAccountData(toJson(jointAccountData));
-        caseRepo.save(caseEntity);
+        caseMutations.run(caseId, "updateJointAccountData",
+                () -> caseUnitOfWork.get(caseId).replace(CaseSection.JOINT_ACCOUNT_DATA, jointAccountData));
         log.info("Updated joint account data for case: {}", caseId);
     }
 
@@ -328,18 +450,18 @@ public class MyCaseService {
      * Get joint account data
      */
     public Map<String, Object> getJointAccountData(UUID caseId) {
-        CaseEntity caseEntity = getCase(caseId);
-        return parseCaseData(caseEntity.getJointAccountData());
+        return caseUnitOfWork.get(caseId).jointAccountData();
     }
 
     /**
      * Set BPMN process ID
      */
-    @Transactional
     public void setBpmnProcessId(UUID caseId, String bpmnProcessId) {
-        CaseEntity caseEntity = getCase(caseId);
-        caseEntity.setBpmnProcessId(bpmnProcessId);
-        caseRepo.save(caseEntity);
+        caseMutations.run(caseId, "setBpmnProcessId", () -> {
+            CaseEntity caseEntity = loadForUpdate(caseId);
+            caseEntity.setBpmnProcessId(bpmnProcessId);
+            caseRepo.save(caseEntity);
+        });
         log.info("Set BPMN process ID for case: {} -> {}", caseId, bpmnProcessId);
     }
 
@@ -354,24 +476,28 @@ public class MyCaseService {
     /**
      * Pause workflow (set expiration for cleanup)
      */
-    @Transactional
     public void pauseWorkflow(UUID caseId) {
-        CaseEntity caseEntity = getCase(caseId);
-        caseEntity.setStatus("PAUSED");
-        caseEntity.setExpiresAt(Instant.now().plusSeconds(30 * 24 * 60 * 60)); // 30 days
-        caseRepo.save(caseEntity);
+        caseMutations.run(caseId, "pauseWorkflow", () -> {
+            CaseEntity caseEntity = loadForUpdate(caseId);
+            caseEntity.setStatus("PAUSED");
+            caseEntity.setExpiresAt(Instant.now().plusSeconds(30 * 24 * 60 * 60)); // 30 days
+            caseRepo.save(caseEntity);
+        });
+        resumeTokenLookup.invalidate(caseId);
         log.info("Paused workflow for case: {}", caseId);
     }
 
     /**
      * Resume workflow
      */
-    @Transactional
     public void resumeWorkflow(UUID caseId) {
-        CaseEntity caseEntity = getCase(caseId);
-        caseEntity.setStatus("ACTIVE");
-        caseEntity.setExpiresAt(null); // Remove expiration
-        caseRepo.save(caseEntity);
+        caseMutations.run(caseId, "resumeWorkflow", () -> {
+            CaseEntity caseEntity = loadForUpdate(caseId);
+            caseEntity.setStatus("ACTIVE");
+            caseEntity.setExpiresAt(null); // Remove expiration
+            caseRepo.save(caseEntity);
+        });
+        resumeTokenLookup.invalidate(caseId);
         log.info("Resumed workflow for case: {}", caseId);
     }
 
@@ -387,76 +513,53 @@ public class MyCaseService {
     /**
      * Add milestone to epic data
      */
-    @Transactional
     public void addMilestone(UUID caseId, String epicKey, String milestoneKey, String name, String status) {
-        Map<String, Object> epicData = getEpicData(caseId);
-        if (epicData == null) {
-            epicData = new HashMap<>();
-        }
+        LocalDateTime now = LocalDateTime.now();
 
-        @SuppressWarnings("unchecked")
-        Map<String, Object> epics = (Map<String, Object>) epicData.getOrDefault("epics", new HashMap<>());
-        @SuppressWarnings("unchecked")
-        Map<String, Object> epic = (Map<String, Object>) epics.getOrDefault(epicKey, new HashMap<>());
-        @SuppressWarnings("unchecked")
-        Map<String, Object> milestones = (Map<String, Object>) epic.getOrDefault("milestones", new HashMap<>());
-
-        Map<String, Object> milestone = new HashMap<>();
-        milestone.put("name", name);
-        milestone.put("status", status);
-        milestone.put("startedAt", LocalDateTime.now());
-        if ("COMPLETED".equals(status)) {
-            milestone.put("completedAt", LocalDateTime.now());
-        }
+        caseMutations.run(caseId, "addMilestone", () -> {
+            Milestone milestone = Milestone.builder()
+                    .name(name)
+                    .status(status)
+                    .startedAt(now)
+                    .completedAt("COMPLETED".equals(status) ? now : null)
+                    .build();
 
-        milestones.put(milestoneKey, milestone);
-        epic.put("milestones", milestones);
-        epics.put(epicKey, epic);
-        epicData.put("epics", epics);
+            CaseContext context = caseUnitOfWork.get(caseId);
+            context.epicData().epic(epicKey).getMilestones().put(milestoneKey, milestone);
+            context.markDirty(CaseSection.EPIC_DATA);
 
-        updateEpicData(caseId, epicData);
+            // Publish milestone event
+            eventPublisher.publishMilestoneEvent(caseId.toString(),
+                    milestoneKey,
+                    "STARTED".equals(status) ? "MILESTONE_STARTED" : "MILESTONE_REACHED",
+                    Map.of("epicKey", epicKey, "name", name, "status", status));
+        });
         log.info("Added milestone {} to epic {} for case {}", milestoneKey, epicKey, caseId);
-
-        // Publish milestone event
-        eventPublisher.publishMilestoneEvent(caseId.toString(),
-                milestoneKey,
-                "STARTED".equals(status) ? "MILESTONE_STARTED" : "MILESTONE_REACHED",
-                Map.of("epicKey", epicKey, "name", name, "status", status));
     }
 
     /**
      * Complete milestone
      */
-    @Transactional
     public void completeMilestone(UUID caseId, String epicKey, String milestoneKey) {
-        Map<String, Object> epicData = getEpicData(caseId);
-        if (epicData == null)
-            return;
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> epics = (Map<String, Object>) epicData.getOrDefault("epics", new HashMap<>());
-        @SuppressWarnings("unchecked")
-        Map<String, Object> epic = (Map<String, Object>) epics.getOrDefault(epicKey, new HashMap<>());
-        @SuppressWarnings("unchecked")
-        Map<String, Object> milestones = (Map<String, Object>) epic.getOrDefault("milestones", new HashMap<>());
-        @SuppressWarnings("unchecked")
-        Map<String, Object> milestone = (Map<String, Object>) milestones.get(milestoneKey);
-
-        if (milestone != null) {
-            milestone.put("status", "COMPLETED");
-            milestone.put("completedAt", LocalDateTime.now());
-            milestones.put(milestoneKey, milestone);
-            epic.put("milestones", milestones);
-            epics.put(epicKey, epic);
-            epicData.put("epics", epics);
-            updateEpicData(caseId, epicData);
-            log.info("Completed milestone {} in epic {} for case {}", milestoneKey, epicKey, caseId);
+        boolean completed = caseMutations.execute(caseId, "completeMilestone", () -> {
+            CaseContext context = caseUnitOfWork.get(caseId);
+            Milestone milestone = context.epicData().findMilestone(epicKey, milestoneKey);
+            if (milestone == null) {
+                return false;
+            }
+            milestone.complete();
+            context.markDirty(CaseSection.EPIC_DATA);
 
             // Publish milestone event
             eventPublisher.publishMilestoneEvent(caseId.toString(),
                     milestoneKey,
                     "MILESTONE_COMPLETED",
                     Map.of("epicKey", epicKey, "status", "COMPLETED"));
+            return true;
+        });
+
+        if (completed) {
+            log.info("Completed milestone {} in epic {} for case {}", milestoneKey, epicKey, caseId);
         }
     }
 
@@ -464,68 +567,45 @@ public class MyCaseService {
      * Get milestone status
      */
     public String getMilestoneStatus(UUID caseId, String epicKey, String milestoneKey) {
-        Map<String, Object> epicData = getEpicData(caseId);
-        if (epicData == null)
-            return null;
-
-        @SuppressWarnings("unchecked")
-        Map<String, Object> epics = (Map<String, Object>) epicData.getOrDefault("epics", new HashMap<>());
-        @SuppressWarnings("unchecked")
-        Map<String, Object> epic = (Map<String, Object>) epics.getOrDefault(epicKey, new HashMap<>());
-        @SuppressWarnings("unchecked")
-        Map<String, Object> milestones = (Map<String, Object>) epic.getOrDefault("milestones", new HashMap<>());
-        @SuppressWarnings("unchecked")
-        Map<String, Object> milestone = (Map<String, Object>) milestones.get(milestoneKey);
-
-        return milestone != null ? (String) milestone.get("status") : null;
+        Milestone milestone = getEpicData(caseId).findMilestone(epicKey, milestoneKey);
+        return milestone != null ? milestone.getStatus() : null;
     }
 
     /**
      * Add compliance check result
      */
-    @Transactional
     public void addComplianceCheck(UUID caseId, String checkType, String status, Map<String, Object> checkResult) {
-        Map<String, Object> complianceStatus = getComplianceStatus(caseId);
-        if (complianceStatus == null) {
-            complianceStatus = new HashMap<>();
-        }
-
-        @SuppressWarnings("unchecked")
-        List<Map<String, Object>> checks = (List<Map<String, Object>>) complianceStatus.getOrDefault("checks",
-                new ArrayList<>());
-
-        Map<String, Object> check = new HashMap<>();
-        check.put("checkType", checkType);
-        check.put("status", status);
-        check.put("checkResult", checkResult);
-        check.put("checkedAt", LocalDateTime.now());
-
-        checks.add(check);
-        complianceStatus.put("checks", checks);
-
-        // Update overall compliance status
-        boolean allPassed = checks.stream().allMatch(c -> "PASSED".equals(c.get("status")));
-        complianceStatus.put("overallStatus", allPassed ? "PASSED" : "REVIEW_NEEDED");
-
-        updateComplianceStatus(caseId, complianceStatus);
+        LocalDateTime checkedAt = LocalDateTime.now();
+
+        caseMutations.run(caseId, "addComplianceCheck", () -> {
+            CaseContext context = caseUnitOfWork.get(caseId);
+
+            // Records the check and recomputes the overall compliance status
+            context.complianceStatus().addCheck(ComplianceCheckRecord.builder()
+                    .checkType(checkType)
+                    .status(status)
+                    .checkResult(checkResult)
+                    .checkedAt(checkedAt)
+                    .build());
+
+            context.markDirty(CaseSection.COMPLIANCE_STATUS);
+
+            // Publish compliance event
+            eventPublisher.publishComplianceEvent(caseId.toString(),
+                    "UNKNOWN", // applicantId might not be available here directly from call
+                    checkType,
+                    status,
+                    checkResult);
+        });
         log.info("Added compliance check {} with status {} for case {}", checkType, status, caseId);
-
-        // Publish compliance event
-        eventPublisher.publishComplianceEvent(caseId.toString(),
-                "UNKNOWN", // applicantId might not be available here directly from call
-                checkType,
-                status,
-                checkResult);
     }
 
     /**
      * Get overall compliance status
      */
     public String getOverallComplianceStatus(UUID caseId) {
-        Map<String, Object> complianceStatus = getComplianceStatus(caseId);
-        if (complianceStatus == null)
-            return "UNKNOWN";
-        return (String) complianceStatus.getOrDefault("overallStatus", "UNKNOWN");
+        String overallStatus = getComplianceStatus(caseId).getOverallStatus();
+        return overallStatus != null ? overallStatus : "UNKNOWN";
     }
 
     // ===========================================
@@ -537,7 +617,7 @@ public class MyCaseService {
      */
     @Transactional
     public void startBpmnProcess(UUID caseId, String processDefinitionKey, Map<String, Object> variables) {
-        CaseEntity caseEntity = getCase(caseId);
+        CaseEntity caseEntity = loadForUpdate(caseId);
 
         try {
             // Add case data to variables
@@ -711,7 +791,7 @@ public class MyCaseService {
      */
     @Transactional
     public void deleteBpmnProcess(UUID caseId, String reason) {
-        CaseEntity caseEntity = getCase(caseId);
+        CaseEntity caseEntity = loadForUpdate(caseId);
         String bpmnProcessId = caseEntity.getBpmnProcessId();
 
         if (bpmnProcessId == null) {
@@ -735,14 +815,14 @@ public class MyCaseService {
     // ===========================================
 
     /**
-     * Perform compliance check for case using ComplianceService
+     * Perform compliance check for case using ComplianceService.
+     * Not transactional: the screening calls are remote, and the resulting
+     * status update runs (and retries) in its own short transaction.
      */
-    @Transactional
     public void performComplianceCheck(UUID caseId, String applicantId) {
         log.info("Performing compliance check for case: {}, applicant: {}", caseId, applicantId);
 
-        CaseEntity caseEntity = getCase(caseId);
-        Map<String, Object> applicantData = parseCaseData(caseEntity.getCaseData());
+        Map<String, Object> applicantData = caseUnitOfWork.get(caseId).caseData();
 
         try {
             // Perform AML screening
@@ -756,12 +836,13 @@ public class MyCaseService {
                     applicantData);
 
             // Update compliance status
-            Map<String, Object> complianceStatus = Map.of(
-                    "amlStatus", amlResult.getStatus(),
-                    "kycStatus", kycResult.getStatus(),
-                    "sanctionsStatus", sanctionsResult.getStatus(),
-                    "overallStatus", determineOverallComplianceStatus(amlResult, kycResult, sanctionsResult),
-                    "lastChecked", LocalDateTime.now());
+            ComplianceStatusData complianceStatus = ComplianceStatusData.builder()
+                    .amlStatus(amlResult.getStatus())
+                    .kycStatus(kycResult.getStatus())
+                    .sanctionsStatus(sanctionsResult.getStatus())
+                    .overallStatus(determineOverallComplianceStatus(amlResult, kycResult, sanctionsResult))
+                    .lastChecked(LocalDateTime.now())
+                    .build();
 
             updateComplianceStatus(caseId, complianceStatus);
             log.info("Compliance check completed for case {}", caseId);
@@ -778,8 +859,7 @@ public class MyCaseService {
     public List<String> getProductRecommendations(UUID caseId) {
         log.info("Getting product recommendations for case: {}", caseId);
 
-        CaseEntity caseEntity = getCase(caseId);
-        Map<String, Object> applicantData = parseCaseData(caseEntity.getCaseData());
+        Map<String, Object> applicantData = caseUnitOfWork.get(caseId).caseData();
 
         try {
             return dmnDecisionService.recommendProducts(applicantData);
@@ -795,8 +875,7 @@ public class MyCaseService {
     public boolean checkEligibility(UUID caseId) {
         log.info("Checking eligibility for case: {}", caseId);
 
-        CaseEntity caseEntity = getCase(caseId);
-        Map<String, Object> applicantData = parseCaseData(caseEntity.getCaseData());
+        Map<String, Object> applicantData = caseUnitOfWork.get(caseId).caseData();
 
         try {
             return dmnDecisionService.checkEligibility(applicantData);
@@ -812,8 +891,7 @@ public class MyCaseService {
     public String assessAmlRisk(UUID caseId) {
         log.info("Assessing AML risk for case: {}", caseId);
 
-        CaseEntity caseEntity = getCase(caseId);
-        Map<String, Object> applicantData = parseCaseData(caseEntity.getCaseData());
+        Map<String, Object> applicantData = caseUnitOfWork.get(caseId).caseData();
 
         try {
             return dmnDecisionService.assessAmlRisk(applicantData);
@@ -829,8 +907,7 @@ public class MyCaseService {
     public Map<String, Object> performComplianceCheckWithDmn(UUID caseId) {
         log.info("Performing compliance check with DMN for case: {}", caseId);
 
-        CaseEntity caseEntity = getCase(caseId);
-        Map<String, Object> applicantData = parseCaseData(caseEntity.getCaseData());
+        Map<String, Object> applicantData = caseUnitOfWork.get(caseId).caseData();
 
         try {
             return dmnDecisionService.performComplianceCheck(applicantData);
@@ -0,0 +1,95 @@
+package com.ngoctran.interactionservice.cases;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Resume-token resolution without materializing the case row.
+ *
+ * Tokens are stored and looked up as SHA-256 hashes on an indexed column; the
+ * lookup returns only (case_id, status, expires_at) and hits are cached for a
+ * short TTL, which absorbs the burst of resume calls after app restarts.
+ * The cache is per instance: {@link #invalidate} only clears this JVM, so another
+ * instance may keep resolving a replaced token, or report an old status, for up
+ * to {@code cache-ttl-ms}. Keep that TTL short.
+ */
+@Component
+public class ResumeTokenLookup {
+
+    private final CaseRepository caseRepo;
+    private final long ttlNanos;
+    private final int maxEntries;
+
+    private final Map<String, CachedView> cache = new ConcurrentHashMap<>();
+
+    public ResumeTokenLookup(CaseRepository caseRepo,
+            @Value("${app.case.resume-token.cache-ttl-ms:5000}") long ttlMs,
+            @Value("${app.case.resume-token.cache-max-entries:10000}") int maxEntries) {
+        this.caseRepo = caseRepo;
+        this.ttlNanos = ttlMs * 1_000_000L;
+        this.maxEntries = maxEntries;
+    }
+
+    public Optional<ResumeTokenView> find(String resumeToken) {
+        if (resumeToken == null || resumeToken.isEmpty())
+            return Optional.empty();
+
+        String hash = hash(resumeToken);
+        long now = System.nanoTime();
+        CachedView cached = cache.get(hash);
+        if (cached != null && now - cached.loadedAt < ttlNanos) {
+            return Optional.of(cached.view);
+        }
+
+        // Misses are not cached, so a freshly issued token is visible immediately
+        Optional<ResumeTokenView> view = caseRepo.findByResumeTokenHash(hash);
+        if (view.isPresent()) {
+            if (cache.size() >= maxEntries) {
+                cache.values().removeIf(entry -> now - entry.loadedAt >= ttlNanos);
+            }
+            if (cache.size() < maxEntries) {
+                cache.put(hash, new CachedView(view.get(), now));
+            } // else still full of live entries: serve this hit uncached rather than evict the working set
+        } else if (cached != null) {
+            cache.remove(hash, cached);
+        }
+        return view;
+    }
+
+    /**
+     * Check a presented token against a case
+     */
+    public boolean matches(UUID caseId, String resumeToken) {
+        return find(resumeToken)
+                .map(view -> view.getId().equals(caseId))
+                .orElse(false);
+    }
+
+    /**
+     * Drop this instance's cached lookups for a case after its token or status changed
+     */
+    public void invalidate(UUID caseId) {
+        cache.values().removeIf(cached -> cached.view.getId().equals(caseId));
+    }
+
+    public String hash(String resumeToken) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(resumeToken.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedView(ResumeTokenView view, long loadedAt) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.ngoctran.interactionservice.cases;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Minimal projection for resume-token validation: (case_id, status, expires_at)
+ */
+public interface ResumeTokenView {
+
+    UUID getId();
+
+    String getStatus();
+
+    Instant getExpiresAt();
+}
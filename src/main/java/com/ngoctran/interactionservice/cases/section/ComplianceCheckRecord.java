@@ -0,0 +1,40 @@
+package com.ngoctran.interactionservice.cases.section;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Single compliance check result stored on the case
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComplianceCheckRecord {
+    private String checkType; // AML, KYC, SANCTIONS, ...
+    private String status; // PASSED, FAILED, REVIEW_NEEDED
+    private Map<String, Object> checkResult;
+    private LocalDateTime checkedAt;
+
+    // Unmapped properties, kept so they survive a rewrite
+    @Builder.Default
+    private Map<String, Object> extra = new LinkedHashMap<>();
+
+    @JsonAnyGetter
+    public Map<String, Object> getExtra() {
+        return extra;
+    }
+
+    @JsonAnySetter
+    public void putExtra(String key, Object value) {
+        extra.put(key, value);
+    }
+}
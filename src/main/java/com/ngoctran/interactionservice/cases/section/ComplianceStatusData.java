@@ -0,0 +1,56 @@
+package com.ngoctran.interactionservice.cases.section;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typed model of the compliance_status column
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ComplianceStatusData {
+
+    @Builder.Default
+    private List<ComplianceCheckRecord> checks = new ArrayList<>();
+
+    private String overallStatus; // PASSED, REVIEW_NEEDED
+    private String amlStatus;
+    private String kycStatus;
+    private String sanctionsStatus;
+    private LocalDateTime lastChecked;
+
+    // Unmapped properties, kept so they survive a rewrite
+    @Builder.Default
+    private Map<String, Object> extra = new LinkedHashMap<>();
+
+    /**
+     * Record a check and recompute the overall status
+     */
+    public void addCheck(ComplianceCheckRecord check) {
+        checks.add(check);
+        boolean allPassed = checks.stream().allMatch(c -> "PASSED".equals(c.getStatus()));
+        overallStatus = allPassed ? "PASSED" : "REVIEW_NEEDED";
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getExtra() {
+        return extra;
+    }
+
+    @JsonAnySetter
+    public void putExtra(String key, Object value) {
+        extra.put(key, value);
+    }
+}
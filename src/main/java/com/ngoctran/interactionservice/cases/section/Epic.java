@@ -0,0 +1,39 @@
+package com.ngoctran.interactionservice.cases.section;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Epic grouping a set of milestones
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Epic {
+
+    @Builder.Default
+    private Map<String, Milestone> milestones = new HashMap<>();
+
+    // Unmapped properties, kept so they survive a rewrite
+    @Builder.Default
+    private Map<String, Object> extra = new LinkedHashMap<>();
+
+    @JsonAnyGetter
+    public Map<String, Object> getExtra() {
+        return extra;
+    }
+
+    @JsonAnySetter
+    public void putExtra(String key, Object value) {
+        extra.put(key, value);
+    }
+}
@@ -0,0 +1,51 @@
+package com.ngoctran.interactionservice.cases.section;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Typed model of the epic_data column (epics and their milestones)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EpicData {
+
+    @Builder.Default
+    private Map<String, Epic> epics = new HashMap<>();
+
+    // Unmapped properties, kept so they survive a rewrite
+    @Builder.Default
+    private Map<String, Object> extra = new LinkedHashMap<>();
+
+    /**
+     * Get an epic, creating it if absent
+     */
+    public Epic epic(String epicKey) {
+        return epics.computeIfAbsent(epicKey, k -> new Epic());
+    }
+
+    public Milestone findMilestone(String epicKey, String milestoneKey) {
+        Epic epic = epics.get(epicKey);
+        return epic != null ? epic.getMilestones().get(milestoneKey) : null;
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getExtra() {
+        return extra;
+    }
+
+    @JsonAnySetter
+    public void putExtra(String key, Object value) {
+        extra.put(key, value);
+    }
+}
@@ -0,0 +1,87 @@
+package com.ngoctran.interactionservice.cases.section;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lazily-parsed, memoized view of one JSON column.
+ *
+ * The raw column value is parsed on first {@link #get()} and the parsed value
+ * is reused afterwards. {@link #toJson()} only re-serializes when the section
+ * was mutated; otherwise the original column text is handed back untouched.
+ * A column that fails to parse reads as an empty section, but writing it back
+ * is refused so the unreadable original is never overwritten.
+ */
+@Slf4j
+public class JsonSection<T> {
+
+    private final String raw;
+    private final Class<T> type;
+    private final ObjectMapper objectMapper;
+
+    private T value;
+    private boolean dirty;
+    private boolean unparseable;
+
+    public JsonSection(String raw, Class<T> type, ObjectMapper objectMapper) {
+        this.raw = raw;
+        this.type = type;
+        this.objectMapper = objectMapper;
+    }
+
+    public T get() {
+        if (value == null) {
+            value = parse();
+        }
+        return value;
+    }
+
+    public void set(T value) {
+        this.value = value;
+        this.dirty = true;
+        this.unparseable = false; // replaced wholesale, nothing of the original to lose
+    }
+
+    public void markDirty() {
+        this.dirty = true;
+    }
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public String toJson() {
+        if (!dirty) {
+            return raw;
+        }
+        if (unparseable) {
+            throw new IllegalStateException(
+                    "Refusing to overwrite unparseable " + type.getSimpleName() + " section");
+        }
+        try {
+            return objectMapper.writeValueAsString(get());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize to JSON", e);
+        }
+    }
+
+    private T parse() {
+        try {
+            if (raw != null && !raw.isEmpty()) {
+                return objectMapper.readValue(raw, type);
+            }
+        } catch (Exception e) {
+            unparseable = true;
+            log.error("Failed to parse case section as {}", type.getSimpleName(), e);
+        }
+        return empty();
+    }
+
+    private T empty() {
+        try {
+            return objectMapper.readValue("{}", type);
+        } catch (Exception e) {
+            throw new IllegalStateException("Cannot create empty section of type " + type.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.ngoctran.interactionservice.cases.section;
+
+import com.fasterxml.jackson.annotation.JsonAnyGetter;
+import com.fasterxml.jackson.annotation.JsonAnySetter;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Milestone within an epic
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Milestone {
+    private String name;
+    private String status; // STARTED, IN_PROGRESS, COMPLETED
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+
+    // Unmapped properties, kept so they survive a rewrite
+    @Builder.Default
+    private Map<String, Object> extra = new LinkedHashMap<>();
+
+    public void complete() {
+        this.status = "COMPLETED";
+        this.completedAt = LocalDateTime.now();
+    }
+
+    @JsonAnyGetter
+    public Map<String, Object> getExtra() {
+        return extra;
+    }
+
+    @JsonAnySetter
+    public void putExtra(String key, Object value) {
+        extra.put(key, value);
+    }
+}
@@ -1,9 +1,16 @@
 package com.ngoctran.interactionservice.config;
 
+import com.ngoctran.interactionservice.events.CaseKeyPartitioner;
 import com.ngoctran.interactionservice.events.ComplianceEvent;
+import com.ngoctran.interactionservice.events.serialization.BinaryEventDeserializer;
+import com.ngoctran.interactionservice.events.serialization.BinaryEventSerializer;
+import com.ngoctran.interactionservice.events.serialization.TimedSerializer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
@@ -24,12 +31,37 @@ import java.util.Map;
  * Optimized Kafka Configuration for high-throughput and reliability
  */
 @Configuration
+@RequiredArgsConstructor
 @Slf4j
 public class OptimizedKafkaConfig {
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    /**
+     * Value format for workflow events: json (Spring JsonSerializer) or binary
+     * (schema id + Smile, see {@link BinaryEventSerializer}). Binary consumers also
+     * read JSON records, so switch consumers first when rolling this out.
+     */
+    @Value("${app.kafka.serialization.format:json}")
+    private String serializationFormat;
+
+    /**
+     * Listener threads; records are keyed by caseId, so up to the topic partition
+     * count can be used without losing per-case ordering
+     */
+    @Value("${app.kafka.consumer.concurrency:3}")
+    private int concurrency;
+
+    @Value("${app.kafka.consumer.batch-concurrency:5}")
+    private int batchConcurrency;
+
+    private boolean binaryFormat() {
+        return "binary".equalsIgnoreCase(serializationFormat);
+    }
+
     /**
      * Optimized Producer Configuration
      */
@@ -41,7 +73,9 @@ public class OptimizedKafkaConfig {
         // Basic configuration
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+
+        // Same partition for every record of a case, whatever the topic
+        configProps.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, CaseKeyPartitioner.class);
 
         // Performance optimizations
         configProps.put(ProducerConfig.ACKS_CONFIG, "1"); // Wait for leader
@@ -61,8 +95,17 @@ public class OptimizedKafkaConfig {
         // Idempotence for exactly-once delivery
         configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
 
-        log.info("Configured optimized Kafka producer with bootstrap servers: {}", bootstrapServers);
-        return new DefaultKafkaProducerFactory<>(configProps);
+        // Value serializer timed per topic (kafka.serialization.time / kafka.serialization.bytes)
+        Serializer<Object> valueSerializer = binaryFormat() ? new BinaryEventSerializer() : new JsonSerializer<>();
+        DefaultKafkaProducerFactory<String, Object> factory = new DefaultKafkaProducerFactory<>(configProps,
+                new StringSerializer(), new TimedSerializer(valueSerializer, meterRegistry, serializationFormat));
+
+        // Native producer metrics (record-send-rate, batch-size-avg, request-latency-avg, ...)
+        factory.addListener(new MicrometerProducerListener<>(meterRegistry));
+
+        log.info("Configured optimized Kafka producer with bootstrap servers: {} ({} values)", bootstrapServers,
+                serializationFormat);
+        return factory;
     }
 
     /**
@@ -86,7 +129,8 @@ public class OptimizedKafkaConfig {
         props.put(ConsumerConfig.GROUP_ID_CONFIG, "interaction-service-optimized");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
         props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ErrorHandlingDeserializer.class);
-        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS, JsonDeserializer.class.getName());
+        props.put(ErrorHandlingDeserializer.VALUE_DESERIALIZER_CLASS,
+                binaryFormat() ? BinaryEventDeserializer.class.getName() : JsonDeserializer.class.getName());
 
         // Performance optimizations
         props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 100); // Batch size
@@ -100,11 +144,11 @@ public class OptimizedKafkaConfig {
         props.put(ConsumerConfig.HEARTBEAT_INTERVAL_MS_CONFIG, 3000);
         props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, 300000);
 
-        // Deserializer configuration
+        // Deserializer configuration (also used by the binary deserializer's JSON fallback)
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "com.ngoctran.interactionservice.events");
         props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, Object.class.getName());
 
-        return new DefaultKafkaConsumerFactory<>(props);
+        return withMetrics(new DefaultKafkaConsumerFactory<>(props));
     }
 
     /**
@@ -118,7 +162,15 @@ public class OptimizedKafkaConfig {
         // Larger batch size for batch processing
         props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, 500);
 
-        return new DefaultKafkaConsumerFactory<>(props);
+        return withMetrics(new DefaultKafkaConsumerFactory<>(props));
+    }
+
+    /**
+     * Native consumer metrics per client id, including offset lag (records-lag-max)
+     */
+    private ConsumerFactory<String, Object> withMetrics(DefaultKafkaConsumerFactory<String, Object> factory) {
+        factory.addListener(new MicrometerConsumerListener<>(meterRegistry));
+        return factory;
     }
 
     /**
@@ -134,7 +186,7 @@ public class OptimizedKafkaConfig {
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
 
         // Concurrency settings
-        factory.setConcurrency(3);
+        factory.setConcurrency(concurrency);
 
         return factory;
     }
@@ -155,7 +207,7 @@ public class OptimizedKafkaConfig {
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
 
         // Higher concurrency for batch processing
-        factory.setConcurrency(5);
+        factory.setConcurrency(batchConcurrency);
 
         return factory;
     }
@@ -86,7 +86,7 @@ public class AccountCreationDelegate implements JavaDelegate {
             }
 
             // Update case status
-            updateCaseStatus(caseId, "APPROVED");
+            Integer version = updateCaseStatus(caseId, "APPROVED");
 
             // Set process variables for BPMN flow
             execution.setVariable("accountCreated", true);
@@ -99,10 +99,10 @@ public class AccountCreationDelegate implements JavaDelegate {
             log.info("Account created successfully: accountNumber={}, customerId={}, customer={}",
                     accountNumber, customerId, customerName);
 
-            // Publish case update event
-            eventPublisher.publishCaseUpdateEvent(caseId, "ACCOUNT_CREATION",
-                    Map.of("accountNumber", accountNumber, "customerId", customerId),
-                    Map.of("status", "APPROVED", "action", "ACCOUNT_CREATED"));
+            // Publish case update event; case_data is unchanged, the account details are not stored on the case
+            eventPublisher.publishCaseUpdateEvent(caseId, "ACCOUNT_CREATION", Map.of(), version,
+                    Map.of("status", "APPROVED", "action", "ACCOUNT_CREATED",
+                            "accountNumber", accountNumber, "customerId", customerId));
 
             // Publish account created event
             eventPublisher.publishAccountCreatedEvent(caseId, customerId, accountNumber, customerName, "SAVINGS");
@@ -181,19 +181,21 @@ public class AccountCreationDelegate implements JavaDelegate {
     }
 
     /**
-     * Update case status in database
+     * Update case status; returns the flushed version, or null if not updated
      */
-    private void updateCaseStatus(String caseId, String status) {
+    private Integer updateCaseStatus(String caseId, String status) {
         try {
-            caseRepository.findById(UUID.fromString(caseId)).ifPresent(caseEntity -> {
+            return caseRepository.findById(UUID.fromString(caseId)).map(caseEntity -> {
                 caseEntity.setStatus(status);
                 caseEntity.setUpdatedAt(Instant.now());
-                caseRepository.save(caseEntity);
+                Integer version = caseRepository.saveAndFlush(caseEntity).getVersion();
                 log.info("Updated case {} status to {}", caseId, status);
-            });
+                return version;
+            }).orElse(null);
         } catch (Exception e) {
             log.error("Failed to update case status: {}", e.getMessage(), e);
             // Don't throw - this is not critical for account creation
+            return null;
         }
     }
 }
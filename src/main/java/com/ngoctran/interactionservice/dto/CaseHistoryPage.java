@@ -0,0 +1,25 @@
+package com.ngoctran.interactionservice.dto;
+
+import com.ngoctran.interactionservice.cases.CaseAuditEntity;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Cursor-based page of case audit entries.
+ * Pass nextCursor back as afterSeq to fetch the following page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaseHistoryPage {
+    private UUID caseId;
+    private List<CaseAuditEntity> entries;
+    private Long nextCursor;
+    private boolean hasMore;
+}
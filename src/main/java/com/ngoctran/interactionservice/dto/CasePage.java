@@ -0,0 +1,22 @@
+package com.ngoctran.interactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyset page of cases ordered by (createdAt, id) descending.
+ * Pass nextCursor back as cursor to fetch the following page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CasePage {
+    private List<CaseSummary> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
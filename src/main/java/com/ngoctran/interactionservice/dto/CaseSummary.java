@@ -0,0 +1,35 @@
+package com.ngoctran.interactionservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Case listing row - scalar columns only.
+ * caseData is populated (as raw JSON) only when explicitly requested.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CaseSummary {
+    private UUID id;
+    private String caseDefinitionKey;
+    private String customerId;
+    private String currentStep;
+    private String status;
+    private String bpmnProcessId;
+    private Instant expiresAt;
+    private Instant createdAt;
+    private Instant updatedAt;
+
+    @JsonRawValue
+    private String caseData;
+}
@@ -0,0 +1,23 @@
+package com.ngoctran.interactionservice.dto;
+
+import com.ngoctran.interactionservice.WorkflowHistoryView;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Keyset page of workflow history ordered by (changedAt, historyId) descending.
+ * Pass nextCursor back as cursor to fetch the following page.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowHistoryPage {
+    private List<WorkflowHistoryView> items;
+    private String nextCursor;
+    private boolean hasMore;
+}
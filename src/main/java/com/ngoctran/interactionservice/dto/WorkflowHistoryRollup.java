@@ -0,0 +1,24 @@
+package com.ngoctran.interactionservice.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Number of workflow history rows in one time bucket (hour or day start)
+ * for a (workflowType, action, statusAfter) combination
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkflowHistoryRollup {
+    private LocalDateTime bucket;
+    private String workflowType;
+    private String action;
+    private String statusAfter;
+    private long count;
+}
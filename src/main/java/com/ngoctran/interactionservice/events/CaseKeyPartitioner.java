@@ -0,0 +1,47 @@
+package com.ngoctran.interactionservice.events;
+
+import org.apache.kafka.clients.producer.Partitioner;
+import org.apache.kafka.common.Cluster;
+import org.apache.kafka.common.utils.Utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Producer partitioner for case-keyed topics.
+ *
+ * Hashes {@link EventKeys#partitionKey} with murmur2 like Kafka's default
+ * partitioner, so a bare caseId key maps to the same partition as before, while
+ * legacy composite keys follow their case. Records without a key are spread
+ * round-robin per topic.
+ */
+public class CaseKeyPartitioner implements Partitioner {
+
+    private final Map<String, AtomicInteger> roundRobin = new ConcurrentHashMap<>();
+
+    @Override
+    public int partition(String topic, Object key, byte[] keyBytes, Object value, byte[] valueBytes,
+            Cluster cluster) {
+        int partitions = cluster.partitionsForTopic(topic).size();
+        if (key == null) {
+            int next = roundRobin.computeIfAbsent(topic, t -> new AtomicInteger()).getAndIncrement();
+            return Utils.toPositive(next) % partitions;
+        }
+
+        String partitionKey = EventKeys.partitionKey(key.toString());
+        byte[] bytes = partitionKey.equals(key) && keyBytes != null
+                ? keyBytes
+                : partitionKey.getBytes(StandardCharsets.UTF_8);
+        return Utils.toPositive(Utils.murmur2(bytes)) % partitions;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs) {
+    }
+
+    @Override
+    public void close() {
+    }
+}
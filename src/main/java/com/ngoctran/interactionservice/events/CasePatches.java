@@ -0,0 +1,135 @@
+package com.ngoctran.interactionservice.events;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON-Patch (RFC 6902) style diffs of case data, as carried by {@link CaseUpdateEvent}.
+ *
+ * Only object members are addressed; any value (including lists) is replaced as
+ * a whole. Operations are plain maps ({@code op}, {@code path}, {@code value}) so
+ * they serialize as JSON Patch.
+ */
+public final class CasePatches {
+
+    private CasePatches() {
+    }
+
+    /**
+     * Operations setting each top-level field of {@code changedData} (add replaces existing members)
+     */
+    public static List<Map<String, Object>> set(Map<String, Object> changedData) {
+        List<Map<String, Object>> ops = new ArrayList<>();
+        if (changedData != null) {
+            changedData.forEach((key, value) -> ops.add(op("add", pointer("", key), value)));
+        }
+        return ops;
+    }
+
+    /**
+     * Fold events of one case into its current data: the latest snapshot plus the
+     * deltas after it. Deltas at or below the version already applied are skipped,
+     * so redelivered events are harmless.
+     */
+    public static Map<String, Object> rebuild(Iterable<CaseUpdateEvent> events) {
+        Map<String, Object> state = new LinkedHashMap<>();
+        Integer appliedVersion = null;
+        for (CaseUpdateEvent event : events) {
+            if (event.isSnapshot()) {
+                state = deepCopy(event.getCaseData());
+                appliedVersion = event.getVersion();
+                continue;
+            }
+            if (appliedVersion != null && event.getVersion() != null && event.getVersion() <= appliedVersion) {
+                continue;
+            }
+            apply(state, event.getPatch());
+            if (event.getVersion() != null) {
+                appliedVersion = event.getVersion();
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Apply operations in place; intermediate objects missing on the path are created
+     */
+    public static void apply(Map<String, Object> state, List<Map<String, Object>> ops) {
+        if (ops == null)
+            return;
+
+        for (Map<String, Object> op : ops) {
+            List<String> tokens = parse(String.valueOf(op.get("path")));
+            if (tokens.isEmpty()) {
+                throw new IllegalArgumentException("Patching the whole document is not supported");
+            }
+            Map<String, Object> parent = state;
+            for (String token : tokens.subList(0, tokens.size() - 1)) {
+                parent = childObject(parent, token);
+            }
+            String member = tokens.get(tokens.size() - 1);
+            switch (String.valueOf(op.get("op"))) {
+                case "add", "replace" -> parent.put(member, deepCopyValue(op.get("value")));
+                case "remove" -> parent.remove(member);
+                default -> throw new IllegalArgumentException("Unsupported patch op: " + op.get("op"));
+            }
+        }
+    }
+
+    private static Map<String, Object> op(String op, String path, Object value) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("op", op);
+        result.put("path", path);
+        result.put("value", value);
+        return result;
+    }
+
+    private static String pointer(String parent, String member) {
+        return parent + "/" + member.replace("~", "~0").replace("/", "~1");
+    }
+
+    private static List<String> parse(String pointer) {
+        List<String> tokens = new ArrayList<>();
+        if (pointer.isEmpty())
+            return tokens;
+        if (!pointer.startsWith("/")) {
+            throw new IllegalArgumentException("Invalid JSON pointer: " + pointer);
+        }
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> childObject(Map<String, Object> parent, String member) {
+        Object child = parent.get(member);
+        if (child instanceof Map) {
+            return (Map<String, Object>) child;
+        }
+        Map<String, Object> created = new LinkedHashMap<>();
+        parent.put(member, created);
+        return created;
+    }
+
+    private static Map<String, Object> deepCopy(Map<String, Object> source) {
+        Map<String, Object> copy = new LinkedHashMap<>();
+        if (source != null) {
+            source.forEach((key, value) -> copy.put(key, deepCopyValue(value)));
+        }
+        return copy;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object deepCopyValue(Object value) {
+        if (value instanceof Map) {
+            return deepCopy((Map<String, Object>) value);
+        }
+        if (value instanceof List<?> list) {
+            return new ArrayList<>(list.stream().map(CasePatches::deepCopyValue).toList());
+        }
+        return value;
+    }
+}
@@ -0,0 +1,20 @@
+package com.ngoctran.interactionservice.events;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Case Update Batch Event - Published once for a set of case updates (e.g. bulk creation)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaseUpdateBatchEvent {
+    private List<CaseUpdateEvent> events;
+    private long timestamp;
+}
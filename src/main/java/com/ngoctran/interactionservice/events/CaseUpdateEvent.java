@@ -1,23 +1,36 @@
 package com.ngoctran.interactionservice.events;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
 import java.util.Map;
 
 /**
  * Case Update Event - Published when case data is updated
+ *
+ * A snapshot event (case creation) carries the full {@code caseData}; every later
+ * write of case_data publishes a delta carrying only a JSON-Patch {@code patch} of
+ * the fields it persisted, see {@link CasePatches#rebuild} for folding them back
+ * into case data. Writes that change other columns only (status, epic data,
+ * compliance status, ...) also bump {@code version}, so versions in the stream can
+ * skip; they order events and drop redeliveries, they do not signal gaps.
  */
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class CaseUpdateEvent {
     private String caseId;
     private String caseDefinitionKey;
-    private Map<String, Object> caseData;
+    private boolean snapshot;
+    private Integer version; // flw_case.version after the change, when known
+    private Map<String, Object> caseData; // snapshot events only
+    private List<Map<String, Object>> patch; // delta events only
     private Map<String, Object> changes;
     private long timestamp;
 }
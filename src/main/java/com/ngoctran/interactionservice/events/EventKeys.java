@@ -0,0 +1,58 @@
+package com.ngoctran.interactionservice.events;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Kafka record keys for workflow events.
+ *
+ * Everything about a case is keyed by its caseId, on every topic, so it lands on
+ * one partition (see {@link CaseKeyPartitioner}) and is consumed in order while
+ * different cases spread over all partitions. Events without a case use their
+ * workflow/process id; events with neither have a null key and are spread
+ * round-robin instead of piling onto one partition.
+ */
+public final class EventKeys {
+
+    private static final int UUID_LENGTH = 36;
+
+    private EventKeys() {
+    }
+
+    /**
+     * Key for case scoped events: the caseId, or null when there is no case
+     */
+    public static String forCase(String caseId) {
+        return caseId;
+    }
+
+    /**
+     * Key for workflow/process scoped events: the owning case when the context
+     * names one ({@code caseId}), otherwise the workflow id itself
+     */
+    public static String forWorkflow(String workflowId, Map<String, ?> context) {
+        Object caseId = context != null ? context.get("caseId") : null;
+        if (caseId != null) {
+            return caseId.toString();
+        }
+        return workflowId;
+    }
+
+    /**
+     * The part of a record key that decides its partition. Keys written before
+     * keys were unified ({@code caseId + "-" + applicantId}, {@code caseId + "-" + step})
+     * may still sit in the outbox; their caseId prefix keeps them on the case's partition.
+     */
+    public static String partitionKey(String key) {
+        if (key == null || key.length() <= UUID_LENGTH || key.charAt(UUID_LENGTH) != '-') {
+            return key;
+        }
+        String prefix = key.substring(0, UUID_LENGTH);
+        try {
+            UUID.fromString(prefix);
+            return prefix;
+        } catch (IllegalArgumentException e) {
+            return key;
+        }
+    }
+}
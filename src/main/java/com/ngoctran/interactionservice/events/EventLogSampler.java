@@ -0,0 +1,134 @@
+package com.ngoctran.interactionservice.events;
+
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Sampling gate for per-event INFO logging on the publish/handle hot paths.
+ *
+ * Callers guard the log statement, so suppressed events cost a level check, a map
+ * lookup and a random draw, with no message formatting or argument boxing:
+ * <pre>
+ * if (eventLog.sample(log, "MilestoneEvent")) {
+ *     log.info("Publishing milestone event: caseId={}, milestoneKey={}", caseId, milestoneKey);
+ * }
+ * </pre>
+ * Rates are 0..1 per event type (falling back to the default rate) and can be
+ * changed at runtime through {@code /actuator/eventlogging/{eventType}}.
+ */
+@Component
+@Endpoint(id = "eventlogging")
+public class EventLogSampler {
+
+    private final double defaultRate;
+    private final Map<String, Double> configuredRates;
+    private final Map<String, Double> rates = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> logged = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> suppressed = new ConcurrentHashMap<>();
+
+    public EventLogSampler(@Value("${app.events.logging.default-rate:1.0}") double defaultRate,
+            @Value("${app.events.logging.rates:}") String rates) {
+        this.defaultRate = clamp(defaultRate);
+        this.configuredRates = parse(rates);
+        this.rates.putAll(configuredRates);
+    }
+
+    /**
+     * Should this occurrence of {@code eventType} be logged at INFO on {@code logger}?
+     */
+    public boolean sample(Logger logger, String eventType) {
+        if (!logger.isInfoEnabled()) {
+            return false;
+        }
+        Double configured = rates.get(eventType);
+        double rate = configured != null ? configured : defaultRate;
+        boolean sampled = rate >= 1.0 || (rate > 0.0 && ThreadLocalRandom.current().nextDouble() < rate);
+        (sampled ? logged : suppressed).computeIfAbsent(eventType, t -> new LongAdder()).increment();
+        return sampled;
+    }
+
+    @ReadOperation
+    public Map<String, Object> sampling() {
+        Map<String, Object> types = new TreeMap<>();
+        for (String type : knownTypes()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("rate", rates.getOrDefault(type, defaultRate));
+            entry.put("logged", count(logged, type));
+            entry.put("suppressed", count(suppressed, type));
+            types.put(type, entry);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("defaultRate", defaultRate);
+        result.put("eventTypes", types);
+        return result;
+    }
+
+    @WriteOperation
+    public Map<String, Object> setRate(@Selector String eventType, double rate) {
+        rates.put(eventType, clamp(rate));
+        return Map.of("eventType", eventType, "rate", rates.get(eventType));
+    }
+
+    /**
+     * Back to the configured rate (or the default) for one event type
+     */
+    @DeleteOperation
+    public void resetRate(@Selector String eventType) {
+        Double configured = configuredRates.get(eventType);
+        if (configured != null) {
+            rates.put(eventType, configured);
+        } else {
+            rates.remove(eventType);
+        }
+    }
+
+    private Set<String> knownTypes() {
+        Set<String> types = new TreeSet<>(rates.keySet());
+        types.addAll(logged.keySet());
+        types.addAll(suppressed.keySet());
+        return types;
+    }
+
+    private static long count(Map<String, LongAdder> counters, String type) {
+        LongAdder counter = counters.get(type);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Parse {@code Type=rate,Type=rate}
+     */
+    private static Map<String, Double> parse(String rates) {
+        Map<String, Double> parsed = new LinkedHashMap<>();
+        if (rates == null || rates.isBlank())
+            return parsed;
+
+        for (String pair : rates.split(",")) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid event log rate '" + pair + "', expected Type=rate");
+            }
+            parsed.put(parts[0].trim(), clamp(Double.parseDouble(parts[1].trim())));
+        }
+        return parsed;
+    }
+
+    private static double clamp(double rate) {
+        return Math.max(0.0, Math.min(1.0, rate));
+    }
+}
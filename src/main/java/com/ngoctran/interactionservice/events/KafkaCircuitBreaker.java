@@ -0,0 +1,219 @@
+package com.ngoctran.interactionservice.events;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Circuit breaker for Kafka publishing, driven by producer callback outcomes.
+ *
+ * CLOSED: sends flow; outcomes fill a count-based rolling window and the breaker
+ * opens once the failure rate crosses the threshold (after a minimum number of calls).
+ * OPEN: sends are deferred into a bounded local fallback buffer until the open
+ * period ends. HALF_OPEN: a few trial sends are let through; if all succeed the
+ * breaker closes and the fallback buffer is replayed (on the retry scheduler's
+ * thread, never the producer callback that closed it), otherwise it opens again.
+ * A success while CLOSED also replays anything deferred just as the breaker
+ * closed; at most one replay is queued at a time.
+ * State is served at {@code /actuator/kafkacircuit}.
+ */
+@Component
+@Endpoint(id = "kafkacircuit")
+@Slf4j
+public class KafkaCircuitBreaker {
+
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final int windowSize;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationMs;
+    private final int halfOpenTrials;
+
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCount;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openedAt;
+    private int trialsStarted;
+    private int trialsSucceeded;
+
+    private final BlockingQueue<Runnable> fallback;
+    private final AtomicBoolean replayQueued = new AtomicBoolean();
+    private final KafkaRetryScheduler retryScheduler;
+
+    public KafkaCircuitBreaker(MeterRegistry meterRegistry, KafkaRetryScheduler retryScheduler,
+            @Value("${app.kafka.circuit.window-size:100}") int windowSize,
+            @Value("${app.kafka.circuit.minimum-calls:20}") int minimumCalls,
+            @Value("${app.kafka.circuit.failure-rate-threshold:50}") double failureRateThreshold,
+            @Value("${app.kafka.circuit.open-duration-ms:30000}") long openDurationMs,
+            @Value("${app.kafka.circuit.half-open-trials:5}") int halfOpenTrials,
+            @Value("${app.kafka.circuit.fallback-capacity:10000}") int fallbackCapacity) {
+        this.windowSize = windowSize;
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationMs = openDurationMs;
+        this.halfOpenTrials = halfOpenTrials;
+        this.window = new boolean[windowSize];
+        this.fallback = new ArrayBlockingQueue<>(fallbackCapacity);
+        this.retryScheduler = retryScheduler;
+
+        meterRegistry.gauge("kafka.circuit.state", this, breaker -> breaker.getState().ordinal());
+        meterRegistry.gauge("kafka.circuit.fallback.depth", fallback, BlockingQueue::size);
+    }
+
+    /**
+     * May a send go to the broker now? Moves OPEN to HALF_OPEN once the open period is over.
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() - openedAt < openDurationMs) {
+                    return false;
+                }
+                transitionTo(State.HALF_OPEN);
+                // fall through to admit the first trial
+            case HALF_OPEN:
+            default:
+                if (trialsStarted < halfOpenTrials) {
+                    trialsStarted++;
+                    return true;
+                }
+                return false;
+        }
+    }
+
+    /**
+     * Park a send while the circuit is not closed; false when the fallback buffer is full
+     */
+    public boolean defer(Runnable send) {
+        return fallback.offer(send);
+    }
+
+    public void recordSuccess() {
+        boolean replay;
+        synchronized (this) {
+            if (state == State.HALF_OPEN) {
+                trialsSucceeded++;
+                if (trialsSucceeded < halfOpenTrials) {
+                    return;
+                }
+                transitionTo(State.CLOSED);
+                replay = true;
+            } else {
+                record(false);
+                replay = state == State.CLOSED && !fallback.isEmpty();
+            }
+        }
+        if (replay) {
+            scheduleReplay();
+        }
+    }
+
+    public synchronized void recordFailure() {
+        if (state == State.HALF_OPEN) {
+            transitionTo(State.OPEN);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && windowCount >= minimumCalls && failureRate() >= failureRateThreshold) {
+            transitionTo(State.OPEN);
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    @ReadOperation
+    public synchronized Map<String, Object> circuit() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("state", state.name());
+        result.put("failureRate", windowCount > 0 ? failureRate() : 0.0);
+        result.put("windowCalls", windowCount);
+        result.put("windowFailures", windowFailures);
+        result.put("failureRateThreshold", failureRateThreshold);
+        result.put("openedAt", state != State.CLOSED ? Instant.ofEpochMilli(openedAt).toString() : null);
+        result.put("fallbackBuffered", fallback.size());
+        return result;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        synchronized (this) {
+            transitionTo(State.CLOSED);
+        }
+        scheduleReplay();
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == windowSize) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % windowSize;
+    }
+
+    private double failureRate() {
+        return windowFailures * 100.0 / windowCount;
+    }
+
+    private void transitionTo(State next) {
+        if (state == next)
+            return;
+        log.warn("Kafka circuit breaker {} -> {} (failure rate {}%)", state, next,
+                windowCount > 0 ? Math.round(failureRate()) : 0);
+        state = next;
+        trialsStarted = 0;
+        trialsSucceeded = 0;
+        if (next == State.OPEN) {
+            openedAt = System.currentTimeMillis();
+        } else if (next == State.CLOSED) {
+            windowIndex = 0;
+            windowCount = 0;
+            windowFailures = 0;
+        }
+    }
+
+    private void scheduleReplay() {
+        if (replayQueued.compareAndSet(false, true)) {
+            retryScheduler.execute(this::replayFallback);
+        }
+    }
+
+    private void replayFallback() {
+        replayQueued.set(false);
+        List<Runnable> buffered = new ArrayList<>();
+        fallback.drainTo(buffered);
+        if (!buffered.isEmpty()) {
+            log.info("Kafka circuit closed, replaying {} buffered sends", buffered.size());
+            buffered.forEach(Runnable::run);
+        }
+    }
+}
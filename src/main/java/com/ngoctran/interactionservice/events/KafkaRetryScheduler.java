@@ -0,0 +1,162 @@
+package com.ngoctran.interactionservice.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Non-blocking retry timer for failed Kafka sends.
+ *
+ * Retries are parked on a single scheduler thread with exponential backoff and
+ * full jitter instead of sleeping on the producer callback or request thread. The
+ * number of parked retries is bounded; when the queue is full or attempts are
+ * exhausted {@link #schedule} returns false and the caller spills the record to
+ * durable storage. Spills and fallback replays also run here ({@link #execute}),
+ * so no JDBC or bulk work happens on the producer's I/O thread. On shutdown
+ * queued tasks still run and parked retries are handed back to the publisher
+ * ({@link #stop}) instead of being discarded.
+ */
+@Component
+@Slf4j
+public class KafkaRetryScheduler {
+
+    private final ScheduledThreadPoolExecutor timer;
+    private final Set<Runnable> parked = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger depth = new AtomicInteger();
+    private final int maxAttempts;
+    private final long baseDelayMs;
+    private final long maxDelayMs;
+    private final int capacity;
+
+    private final Counter scheduled;
+    private final Counter rejected;
+
+    public KafkaRetryScheduler(MeterRegistry meterRegistry,
+            @Value("${app.kafka.retry-attempts:3}") int maxAttempts,
+            @Value("${app.kafka.retry-delay:1000}") long baseDelayMs,
+            @Value("${app.kafka.retry.max-delay-ms:30000}") long maxDelayMs,
+            @Value("${app.kafka.retry.queue-capacity:10000}") int capacity) {
+        this.maxAttempts = maxAttempts;
+        this.baseDelayMs = baseDelayMs;
+        this.maxDelayMs = maxDelayMs;
+        this.capacity = capacity;
+        this.timer = new ScheduledThreadPoolExecutor(1, r -> {
+            Thread thread = new Thread(r, "kafka-retry-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // On shutdown, parked retries are handed back by stop() instead of waiting out their backoff
+        timer.setExecuteExistingDelayedTasksAfterShutdown(false);
+        this.scheduled = meterRegistry.counter("kafka.retry.scheduled");
+        this.rejected = meterRegistry.counter("kafka.retry.rejected");
+        meterRegistry.gauge("kafka.retry.queue.depth", depth);
+    }
+
+    /**
+     * Park {@code retry} for the backoff of {@code attempt} (1 = first retry).
+     * Returns false when the attempt budget is spent, the queue is full or the
+     * scheduler is shutting down.
+     */
+    public boolean schedule(int attempt, Runnable retry) {
+        if (attempt > maxAttempts) {
+            rejected.increment();
+            return false;
+        }
+        if (depth.incrementAndGet() > capacity) {
+            depth.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+
+        parked.add(retry);
+        try {
+            timer.schedule(() -> {
+                if (!parked.remove(retry))
+                    return; // already handed back by stop()
+                depth.decrementAndGet();
+                try {
+                    retry.run();
+                } catch (Exception e) {
+                    log.error("Kafka retry attempt {} failed to resubmit: {}", attempt, e.getMessage());
+                }
+            }, backoffMs(attempt), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            parked.remove(retry);
+            depth.decrementAndGet();
+            rejected.increment();
+            return false;
+        }
+        scheduled.increment();
+        return true;
+    }
+
+    /**
+     * Run {@code task} on the retry thread now; inline once the scheduler is shut down
+     */
+    public void execute(Runnable task) {
+        try {
+            timer.execute(() -> {
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.error("Kafka retry task failed: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            task.run(); // shutting down: do it here rather than lose it
+        }
+    }
+
+    public int getDepth() {
+        return depth.get();
+    }
+
+    /**
+     * Exponential backoff with full jitter, capped at {@code max-delay-ms}
+     */
+    long backoffMs(int attempt) {
+        long ceiling = Math.min(maxDelayMs, baseDelayMs << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    /**
+     * Stop accepting retries, finish the queued spills and replays, and return the
+     * retries still parked (not run) so their owner can persist them
+     */
+    public List<Runnable> stop() throws InterruptedException {
+        timer.shutdown();
+        if (!timer.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Kafka retry tasks still running after 10s on shutdown");
+        }
+
+        List<Runnable> handedBack = new ArrayList<>();
+        for (Runnable retry : parked) {
+            if (parked.remove(retry)) {
+                depth.decrementAndGet();
+                handedBack.add(retry);
+            }
+        }
+        return handedBack;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        int unclaimed = stop().size();
+        if (unclaimed > 0) {
+            log.warn("Discarding {} parked Kafka retries on shutdown", unclaimed);
+        }
+    }
+}
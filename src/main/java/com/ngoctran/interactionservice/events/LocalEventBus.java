@@ -0,0 +1,177 @@
+package com.ngoctran.interactionservice.events;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Delivers Spring-local workflow events to their listeners (history, etc.).
+ *
+ * In async mode events are handed to one of {@code lanes} bounded queues, each
+ * drained by its own virtual thread. The lane is chosen from the event key
+ * (caseId / workflowId), so events of one case are handled in publish order while
+ * different cases proceed in parallel. Events raised inside a transaction are only
+ * dispatched after it commits. When a lane is full the overflow policy applies:
+ * BLOCK waits for space (backpressure onto the publisher), DROP discards and counts.
+ * On shutdown the workers finish their lanes and whatever is still queued (or
+ * enqueued while shutting down) is delivered inline.
+ */
+@Component
+@Slf4j
+public class LocalEventBus {
+
+    public enum OverflowPolicy {
+        BLOCK, DROP
+    }
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean async;
+    private final OverflowPolicy overflowPolicy;
+    private final List<BlockingQueue<Object>> lanes = new ArrayList<>();
+    private final List<Thread> workers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    private final Counter published;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public LocalEventBus(ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry,
+            @Value("${app.events.local.async:true}") boolean async,
+            @Value("${app.events.local.lanes:8}") int laneCount,
+            @Value("${app.events.local.lane-capacity:1024}") int laneCapacity,
+            @Value("${app.events.local.overflow-policy:BLOCK}") OverflowPolicy overflowPolicy) {
+        this.eventPublisher = eventPublisher;
+        this.async = async;
+        this.overflowPolicy = overflowPolicy;
+        this.published = meterRegistry.counter("local.events.published");
+        this.dropped = meterRegistry.counter("local.events.dropped");
+        this.failed = meterRegistry.counter("local.events.failed");
+
+        if (async) {
+            for (int i = 0; i < Math.max(1, laneCount); i++) {
+                BlockingQueue<Object> lane = new ArrayBlockingQueue<>(laneCapacity);
+                lanes.add(lane);
+                workers.add(Thread.ofVirtual().name("local-events-" + i).start(() -> drain(lane)));
+            }
+            meterRegistry.gauge("local.events.queue.depth", lanes,
+                    ls -> ls.stream().mapToInt(BlockingQueue::size).sum());
+            Gauge.builder("local.events.queue.capacity", () -> lanes.size() * laneCapacity)
+                    .strongReference(true)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Publish an event; {@code key} decides ordering (same key, same lane)
+     */
+    public void publish(String key, Object event) {
+        if (!async) {
+            eventPublisher.publishEvent(event);
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(key, event);
+                }
+            });
+        } else {
+            enqueue(key, event);
+        }
+    }
+
+    private void enqueue(String key, Object event) {
+        BlockingQueue<Object> lane = lanes.get(Math.floorMod(key != null ? key.hashCode() : 0, lanes.size()));
+        if (!running) {
+            eventPublisher.publishEvent(event); // shutting down: deliver inline rather than lose it
+            return;
+        }
+
+        if (overflowPolicy == OverflowPolicy.DROP) {
+            if (!lane.offer(event)) {
+                dropped.increment();
+                log.warn("Local event lane full, dropped {}", event.getClass().getSimpleName());
+                return;
+            }
+        } else {
+            try {
+                while (!lane.offer(event, 200, TimeUnit.MILLISECONDS)) {
+                    if (!running) {
+                        eventPublisher.publishEvent(event); // workers may be gone; do not wait on a full lane
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                eventPublisher.publishEvent(event);
+                return;
+            }
+        }
+        published.increment();
+        if (!running) {
+            drainInline(lane); // raced with shutdown: the worker may already have exited
+        }
+    }
+
+    private void drain(BlockingQueue<Object> lane) {
+        while (running || !lane.isEmpty()) {
+            Object event;
+            try {
+                event = lane.poll(200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                if (!running)
+                    continue; // drain what is left during shutdown
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (event != null) {
+                deliver(event);
+            }
+        }
+    }
+
+    /**
+     * Deliver what is left in a lane on the calling thread, in lane order
+     */
+    private void drainInline(BlockingQueue<Object> lane) {
+        synchronized (lane) {
+            Object event;
+            while ((event = lane.poll()) != null) {
+                deliver(event);
+            }
+        }
+    }
+
+    private void deliver(Object event) {
+        try {
+            eventPublisher.publishEvent(event);
+        } catch (Exception e) {
+            failed.increment();
+            log.error("Local listener failed for {}: {}", event.getClass().getSimpleName(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(10));
+        }
+        lanes.forEach(this::drainInline);
+    }
+}
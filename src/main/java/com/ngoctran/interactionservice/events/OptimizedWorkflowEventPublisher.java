@@ -1,6 +1,12 @@
 package com.ngoctran.interactionservice.events;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import com.ngoctran.interactionservice.events.outbox.EventOutbox;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationEventPublisher;
@@ -8,38 +14,139 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
-import org.springframework.util.concurrent.ListenableFutureCallback;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Optimized Event Publisher with batching, async processing, and reliability features
+ *
+ * Kafka records are queued per (topic, key) in publish order and handed to the
+ * producer by a single flusher thread once a topic has {@code app.kafka.batch-size}
+ * sendable records or the oldest one has waited {@code app.kafka.linger-ms}.
+ * Callers get a future completed from the producer ack.
+ *
+ * A key with a record parked for a retry or in the circuit-breaker fallback is held
+ * back: its later records wait, and parked records rejoin the key's queue in publish
+ * order before anything else of that key is sent. Records already in flight when a
+ * send fails are not recalled. A record spilled to the outbox is delivered by the
+ * relay and is not ordered against later live sends.
+ *
+ * Per topic it records {@code kafka.publish.queue.time} (publish to hand-off),
+ * {@code kafka.publish.latency} (hand-off to broker ack), {@code kafka.publish.sent},
+ * {@code kafka.publish.failures} and {@code kafka.publish.batch.size}.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class OptimizedWorkflowEventPublisher {
 
     private final ApplicationEventPublisher eventPublisher;
     private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final KafkaRetryScheduler retryScheduler;
+    private final KafkaCircuitBreaker circuitBreaker;
+    private final EventOutbox eventOutbox;
+    private final TransactionTemplate transactionTemplate;
 
     @Value("${app.kafka.batch-size:50}")
     private int batchSize;
 
-    @Value("${app.kafka.retry-attempts:3}")
-    private int retryAttempts;
+    @Value("${app.kafka.linger-ms:20}")
+    private long lingerMs;
 
-    @Value("${app.kafka.retry-delay:1000}")
-    private long retryDelay;
+    // Meters per topic, registered on first use
+    private final Map<String, TopicMeters> topicMeters = new ConcurrentHashMap<>();
 
-    // Metrics tracking
-    private final AtomicInteger eventsPublished = new AtomicInteger(0);
-    private final AtomicInteger eventsFailed = new AtomicInteger(0);
-    private final Map<String, AtomicInteger> topicMetrics = new ConcurrentHashMap<>();
+    // Pending records per (topic, key); guarded by itself, as is sendablePerTopic
+    private final Map<SendKey, KeyQueue> pending = new LinkedHashMap<>();
+    private final Map<String, Integer> sendablePerTopic = new HashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private ScheduledExecutorService flusher;
+
+    public OptimizedWorkflowEventPublisher(ApplicationEventPublisher eventPublisher,
+            KafkaTemplate<String, Object> kafkaTemplate, MeterRegistry meterRegistry,
+            KafkaRetryScheduler retryScheduler, KafkaCircuitBreaker circuitBreaker, EventOutbox eventOutbox,
+            PlatformTransactionManager transactionManager) {
+        this.eventPublisher = eventPublisher;
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.retryScheduler = retryScheduler;
+        this.circuitBreaker = circuitBreaker;
+        this.eventOutbox = eventOutbox;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    private record SendKey(String topic, String key) {
+    }
+
+    private record PendingSend(long seq, String topic, String key, Object event, long enqueuedAt, int attempt,
+            CompletableFuture<SendResult<String, Object>> result) {
+
+        SendKey sendKey() {
+            return new SendKey(topic, key);
+        }
+
+        PendingSend nextAttempt() {
+            return new PendingSend(seq, topic, key, event, enqueuedAt, attempt + 1, result);
+        }
+    }
+
+    /**
+     * Records of one (topic, key) waiting to be sent, lowest sequence first; not
+     * flushed while {@code parked} of its records are out for a retry or in the fallback
+     */
+    private static final class KeyQueue {
+        final PriorityQueue<PendingSend> records = new PriorityQueue<>(Comparator.comparingLong(PendingSend::seq));
+        int parked;
+    }
+
+    private record TopicMeters(Timer queueTime, Timer latency, Counter sent, Counter failed,
+            DistributionSummary batchSize) {
+    }
+
+    @PostConstruct
+    void startFlusher() {
+        flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kafka-batch-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flushLingering, lingerMs, lingerMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stopFlusher() throws InterruptedException {
+        flusher.submit(() -> flush(null));
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+
+        // Queued spills finish on the retry thread; parked retries rejoin their key's queue
+        retryScheduler.stop().forEach(Runnable::run);
+
+        // Whatever is still held back (or parked for a retry) would otherwise be lost
+        List<PendingSend> held = new ArrayList<>();
+        synchronized (pending) {
+            pending.values().forEach(queue -> held.addAll(queue.records));
+            pending.clear();
+        }
+        held.forEach(send -> writeToOutbox(send, new IllegalStateException("Publisher shutting down")));
+    }
 
     /**
      * Async batch publishing for high-throughput scenarios
@@ -76,14 +183,15 @@ public class OptimizedWorkflowEventPublisher {
         publishSpringEvent(event);
 
         // Publish to Kafka (reliable, distributed)
-        publishToKafka("workflow-state-events", workflowId, event);
+        publishToKafka("workflow-state-events", EventKeys.forWorkflow(workflowId, context), event);
     }
 
     /**
-     * Batch publish multiple events efficiently
+     * Batch publish multiple events efficiently; the future completes once every
+     * record is acknowledged (or fails with the first send error)
      */
-    public void publishBatchEvents(List<WorkflowStateEvent> events) {
-        if (events.isEmpty()) return;
+    public CompletableFuture<Void> publishBatchEvents(List<WorkflowStateEvent> events) {
+        if (events.isEmpty()) return CompletableFuture.completedFuture(null);
 
         log.debug("Batch publishing {} events", events.size());
 
@@ -91,92 +199,237 @@ public class OptimizedWorkflowEventPublisher {
         events.forEach(this::publishSpringEvent);
 
         // Kafka batching (efficient)
-        events.forEach(event ->
-            publishToKafka("workflow-state-events", event.getWorkflowId(), event)
-        );
+        CompletableFuture<?>[] results = events.stream()
+                .map(event -> publishToKafka("workflow-state-events",
+                        EventKeys.forWorkflow(event.getWorkflowId(), event.getContext()), event))
+                .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(results);
     }
 
     /**
-     * Publish with circuit breaker pattern for resilience
+     * Publish with circuit breaker pattern for resilience. The breaker is fed by
+     * producer callbacks and applied when batches are flushed, so no probe record is
+     * sent; while it is open, Kafka records wait in its fallback buffer.
      */
     public void publishWithCircuitBreaker(String workflowId, String workflowType,
             String oldState, String newState, Map<String, Object> context) {
 
         try {
-            // Check if Kafka is healthy before publishing
-            if (isKafkaHealthy()) {
-                publishWorkflowStateEvent(workflowId, workflowType, oldState, newState, context);
-            } else {
-                // Fallback: only Spring events
-                log.warn("Kafka unhealthy, using Spring events only");
-                WorkflowStateEvent event = WorkflowStateEvent.builder()
-                        .workflowId(workflowId)
-                        .workflowType(workflowType)
-                        .oldState(oldState)
-                        .newState(newState)
-                        .context(context != null ? context : Map.of())
-                        .timestamp(System.currentTimeMillis())
-                        .build();
-                publishSpringEvent(event);
+            KafkaCircuitBreaker.State state = circuitBreaker.getState();
+            if (state != KafkaCircuitBreaker.State.CLOSED) {
+                log.debug("Kafka circuit {}, Kafka record for {} will be buffered", state, workflowId);
             }
+            publishWorkflowStateEvent(workflowId, workflowType, oldState, newState, context);
         } catch (Exception e) {
-            eventsFailed.incrementAndGet();
+            meters("workflow-state-events").failed().increment();
             log.error("Circuit breaker triggered for event publishing: {}", e.getMessage());
         }
     }
 
     /**
-     * Optimized Kafka publishing with callbacks and metrics
+     * Optimized Kafka publishing with callbacks and metrics: queue the record for
+     * the next batch flush of its topic
      */
-    private void publishToKafka(String topic, String key, Object event) {
-        try {
-            var future = kafkaTemplate.send(topic, key, event);
-/*
-            future.addCallback(new ListenableFutureCallback<SendResult<String, Object>>() {
-                @Override
-                public void onSuccess(SendResult<String, Object> result) {
-                    eventsPublished.incrementAndGet();
-                    topicMetrics.computeIfAbsent(topic, k -> new AtomicInteger()).incrementAndGet();
-
-                    if (log.isDebugEnabled()) {
-                        log.debug("Successfully published to Kafka topic: {} with key: {}", topic, key);
+    private CompletableFuture<SendResult<String, Object>> publishToKafka(String topic, String key, Object event) {
+        PendingSend send = new PendingSend(sequence.incrementAndGet(), topic, key, event, System.nanoTime(), 0,
+                new CompletableFuture<>());
+        enqueue(send);
+        return send.result();
+    }
+
+    private void enqueue(PendingSend send) {
+        String topic = send.topic();
+        boolean full;
+        synchronized (pending) {
+            KeyQueue queue = pending.computeIfAbsent(send.sendKey(), k -> new KeyQueue());
+            queue.records.add(send);
+            full = queue.parked == 0 && addSendable(topic, 1) >= batchSize;
+        }
+        if (full) {
+            flusher.execute(() -> flush(topic));
+        }
+    }
+
+    /**
+     * Hold a key back while one more of its records is parked
+     */
+    private void park(SendKey key) {
+        synchronized (pending) {
+            KeyQueue queue = pending.computeIfAbsent(key, k -> new KeyQueue());
+            if (queue.parked++ == 0) {
+                addSendable(key.topic(), -queue.records.size());
+            }
+        }
+    }
+
+    /**
+     * A parked record is back (or gone, when {@code records} is empty): it rejoins its
+     * key's queue in sequence order, and the key is sendable again once nothing is parked
+     */
+    private void unpark(SendKey key, List<PendingSend> records) {
+        synchronized (pending) {
+            KeyQueue queue = pending.computeIfAbsent(key, k -> new KeyQueue());
+            queue.records.addAll(records);
+            if (--queue.parked == 0) {
+                addSendable(key.topic(), queue.records.size());
+            }
+        }
+    }
+
+    /**
+     * Put unsent records back into their key's queue
+     */
+    private void requeue(SendKey key, List<PendingSend> records) {
+        if (records.isEmpty())
+            return;
+        synchronized (pending) {
+            KeyQueue queue = pending.computeIfAbsent(key, k -> new KeyQueue());
+            queue.records.addAll(records);
+            if (queue.parked == 0) {
+                addSendable(key.topic(), records.size());
+            }
+        }
+    }
+
+    // Caller holds the pending lock
+    private int addSendable(String topic, int delta) {
+        return sendablePerTopic.merge(topic, delta, Integer::sum);
+    }
+
+    private void flushLingering() {
+        long cutoff = System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(lingerMs);
+        Set<String> due = new LinkedHashSet<>();
+        synchronized (pending) {
+            pending.forEach((key, queue) -> {
+                PendingSend oldest = queue.records.peek();
+                if (queue.parked == 0 && oldest != null && oldest.enqueuedAt() <= cutoff) {
+                    due.add(key.topic());
+                }
+            });
+        }
+        due.forEach(this::flush);
+    }
+
+    /**
+     * Hand a topic's sendable records (all topics when {@code topic} is null) to the
+     * producer. Runs only on the flusher thread, so each key's records leave in order.
+     */
+    private void flush(String topic) {
+        Map<SendKey, List<PendingSend>> batch = new LinkedHashMap<>();
+        synchronized (pending) {
+            for (Iterator<Map.Entry<SendKey, KeyQueue>> it = pending.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<SendKey, KeyQueue> entry = it.next();
+                SendKey key = entry.getKey();
+                KeyQueue queue = entry.getValue();
+                if (queue.parked > 0 || (topic != null && !topic.equals(key.topic())))
+                    continue;
+
+                if (!queue.records.isEmpty()) {
+                    List<PendingSend> records = new ArrayList<>(queue.records.size());
+                    while (!queue.records.isEmpty()) {
+                        records.add(queue.records.poll());
                     }
+                    batch.put(key, records);
+                    addSendable(key.topic(), -records.size());
                 }
+                it.remove();
+            }
+        }
+        if (batch.isEmpty())
+            return;
 
-                @Override
-                public void onFailure(Throwable ex) {
-                    eventsFailed.incrementAndGet();
-                    log.warn("Failed to publish to Kafka topic: {} with key: {}, error: {}",
-                            topic, key, ex.getMessage());
+        Map<String, Integer> batchSizes = new HashMap<>();
+        batch.forEach((key, records) -> batchSizes.merge(key.topic(), records.size(), Integer::sum));
+        batchSizes.forEach((t, size) -> meters(t).batchSize().record(size));
 
-                    // Implement retry logic here if needed
-                    retryPublish(topic, key, event, 1);
+        batch.forEach(this::send);
+    }
+
+    /**
+     * Send one key's records in order; once the circuit refuses, the rest of the key
+     * is deferred as a whole so the replay keeps its order
+     */
+    private void send(SendKey key, List<PendingSend> records) {
+        for (int i = 0; i < records.size(); i++) {
+            if (!circuitBreaker.allowRequest()) {
+                List<PendingSend> held = List.copyOf(records.subList(i, records.size()));
+                park(key);
+                if (!circuitBreaker.defer(() -> unpark(key, held))) {
+                    spill(key, held, new IllegalStateException("Kafka circuit open and fallback buffer full"));
                 }
-            });*/
+                return;
+            }
 
-        } catch (Exception e) {
-            eventsFailed.incrementAndGet();
-            log.error("Error publishing to Kafka topic: {}, error: {}", topic, e.getMessage());
+            PendingSend send = records.get(i);
+            long sentAt = System.nanoTime();
+            meters(send.topic()).queueTime().record(sentAt - send.enqueuedAt(), TimeUnit.NANOSECONDS);
+            try {
+                kafkaTemplate.send(send.topic(), send.key(), send.event())
+                        .whenComplete((result, ex) -> onSendComplete(send, sentAt, result, ex));
+            } catch (Exception e) {
+                onSendComplete(send, sentAt, null, e);
+                requeue(key, records.subList(i + 1, records.size())); // wait behind the parked retry
+                return;
+            }
+        }
+    }
+
+    private void onSendComplete(PendingSend send, long sentAt, SendResult<String, Object> result, Throwable ex) {
+        String topic = send.topic();
+        TopicMeters meters = meters(topic);
+        meters.latency().record(System.nanoTime() - sentAt, TimeUnit.NANOSECONDS);
+
+        if (ex == null) {
+            circuitBreaker.recordSuccess();
+            meters.sent().increment();
+
+            if (log.isDebugEnabled()) {
+                log.debug("Successfully published to Kafka topic: {} with key: {}", topic, send.key());
+            }
+            send.result().complete(result);
+        } else {
+            circuitBreaker.recordFailure();
+            meters.failed().increment();
+            log.warn("Failed to publish to Kafka topic: {} with key: {}, attempt: {}, error: {}",
+                    topic, send.key(), send.attempt(), ex.getMessage());
+
+            // Park the retry on the scheduler, holding the key back; never sleep on the callback thread
+            PendingSend retry = send.nextAttempt();
+            SendKey key = send.sendKey();
+            park(key);
+            if (!retryScheduler.schedule(retry.attempt(), () -> unpark(key, List.of(retry)))) {
+                spill(key, List.of(send), ex);
+            }
         }
     }
 
     /**
-     * Retry logic with exponential backoff
+     * Retries exhausted or retry queue full: hand the record to the durable outbox,
+     * whose relay keeps delivering once the broker is back. The insert runs on the
+     * retry scheduler's thread (callers are the producer callback and the flusher)
+     * and, as the record is detached from any business transaction, commits on its own.
+     * The key, parked by the caller, is released once the records are written.
      */
-    private void retryPublish(String topic, String key, Object event, int attempt) {
-        if (attempt > retryAttempts) {
-            log.error("Max retry attempts reached for topic: {}, key: {}", topic, key);
-            return;
-        }
+    private void spill(SendKey key, List<PendingSend> sends, Throwable cause) {
+        retryScheduler.execute(() -> {
+            sends.forEach(send -> writeToOutbox(send, cause));
+            unpark(key, List.of());
+        });
+    }
 
+    private void writeToOutbox(PendingSend send, Throwable cause) {
         try {
-            Thread.sleep(retryDelay * attempt); // Exponential backoff
-            publishToKafka(topic, key, event);
-            log.info("Retry successful for topic: {}, key: {}, attempt: {}", topic, key, attempt);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Retry interrupted for topic: {}, key: {}", topic, key);
+            transactionTemplate.executeWithoutResult(
+                    status -> eventOutbox.enqueue(send.topic(), send.key(), send.event()));
+            meterRegistry.counter("kafka.retry.spilled", "topic", send.topic()).increment();
+            log.warn("Spilled record for topic: {} with key: {} to the outbox after {} attempts",
+                    send.topic(), send.key(), send.attempt() + 1);
+        } catch (Exception e) {
+            meterRegistry.counter("kafka.retry.lost", "topic", send.topic()).increment();
+            log.error("Dropping record for topic: {} with key: {}, outbox spill failed: {}",
+                    send.topic(), send.key(), e.getMessage());
         }
+        send.result().completeExceptionally(cause);
     }
 
     /**
@@ -190,42 +443,40 @@ public class OptimizedWorkflowEventPublisher {
         }
     }
 
-    /**
-     * Health check for Kafka connectivity
-     */
-    private boolean isKafkaHealthy() {
-        try {
-            // Simple health check - can be enhanced
-            kafkaTemplate.send("health-check", "ping", "pong");
-            return true;
-        } catch (Exception e) {
-            return false;
-        }
+    private TopicMeters meters(String topic) {
+        return topicMeters.computeIfAbsent(topic, t -> new TopicMeters(
+                Timer.builder("kafka.publish.queue.time").tag("topic", t)
+                        .publishPercentileHistogram().register(meterRegistry),
+                Timer.builder("kafka.publish.latency").tag("topic", t)
+                        .publishPercentileHistogram().register(meterRegistry),
+                meterRegistry.counter("kafka.publish.sent", "topic", t),
+                meterRegistry.counter("kafka.publish.failures", "topic", t),
+                DistributionSummary.builder("kafka.publish.batch.size").tag("topic", t)
+                        .publishPercentileHistogram().register(meterRegistry)));
     }
 
     /**
-     * Get publishing metrics
+     * Get publishing metrics (read from the Micrometer meters)
      */
     public Map<String, Object> getMetrics() {
+        Map<String, Long> topicMetrics = new LinkedHashMap<>();
+        double published = 0;
+        double failed = 0;
+        for (Map.Entry<String, TopicMeters> entry : topicMeters.entrySet()) {
+            double sent = entry.getValue().sent().count();
+            published += sent;
+            failed += entry.getValue().failed().count();
+            if (sent > 0) {
+                topicMetrics.put(entry.getKey(), (long) sent);
+            }
+        }
         return Map.of(
-            "eventsPublished", eventsPublished.get(),
-            "eventsFailed", eventsFailed.get(),
-            "topicMetrics", topicMetrics.entrySet().stream()
-                .collect(java.util.stream.Collectors.toMap(
-                    Map.Entry::getKey,
-                    e -> e.getValue().get()
-                )),
-            "successRate", eventsPublished.get() > 0 ?
-                (double) eventsPublished.get() / (eventsPublished.get() + eventsFailed.get()) * 100 : 0.0
+            "eventsPublished", (long) published,
+            "eventsFailed", (long) failed,
+            "topicMetrics", topicMetrics,
+            "retryQueueDepth", retryScheduler.getDepth(),
+            "circuitState", circuitBreaker.getState().name(),
+            "successRate", published > 0 ? published / (published + failed) * 100 : 0.0
         );
     }
-
-    /**
-     * Reset metrics (for testing)
-     */
-    public void resetMetrics() {
-        eventsPublished.set(0);
-        eventsFailed.set(0);
-        topicMetrics.clear();
-    }
 }
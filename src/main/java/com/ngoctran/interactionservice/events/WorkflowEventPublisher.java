@@ -1,32 +1,59 @@
 package com.ngoctran.interactionservice.events;
 
-import lombok.RequiredArgsConstructor;
+import com.ngoctran.interactionservice.events.outbox.EventOutbox;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.ApplicationEventPublisher;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.List;
 import java.util.Map;
 
 /**
  * Event Publisher - Publishes workflow events using Spring Events and Kafka
  * Similar to onboarding's event-driven architecture
+ *
+ * Kafka events go through the transactional outbox: they are written in the
+ * caller's transaction and relayed to the broker by {@link com.ngoctran.interactionservice.events.outbox.OutboxRelay}.
+ * Publishing therefore requires an active transaction: business changes publish
+ * inside the transaction that makes the change; callers with nothing of their own
+ * to commit (e.g. after a Flowable call) wrap their publishes in {@link #inOwnTransaction}.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class WorkflowEventPublisher {
 
-    private final ApplicationEventPublisher eventPublisher;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final LocalEventBus localEvents;
+    private final EventOutbox eventOutbox;
+    private final EventLogSampler eventLog;
+    private final TransactionTemplate transactionTemplate;
+
+    public WorkflowEventPublisher(LocalEventBus localEvents, EventOutbox eventOutbox, EventLogSampler eventLog,
+            PlatformTransactionManager transactionManager) {
+        this.localEvents = localEvents;
+        this.eventOutbox = eventOutbox;
+        this.eventLog = eventLog;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Run publishes that accompany no database change of the caller in a transaction
+     * of their own. Not for events describing a case change: those must be published
+     * inside the mutation's transaction.
+     */
+    public void inOwnTransaction(Runnable publishes) {
+        transactionTemplate.executeWithoutResult(status -> publishes.run());
+    }
 
     /**
      * Publish milestone event
      */
     public void publishMilestoneEvent(String caseId, String milestoneKey, String eventType,
             Map<String, Object> eventData) {
-        log.info("Publishing milestone event: caseId={}, milestoneKey={}, eventType={}", caseId, milestoneKey,
-                eventType);
+        if (eventLog.sample(log, "MilestoneEvent")) {
+            log.info("Publishing milestone event: caseId={}, milestoneKey={}, eventType={}", caseId, milestoneKey,
+                    eventType);
+        }
 
         MilestoneEvent event = MilestoneEvent.builder()
                 .caseId(caseId)
@@ -37,15 +64,10 @@ public class WorkflowEventPublisher {
                 .build();
 
         // Publish via Spring Events
-        eventPublisher.publishEvent(event);
+        localEvents.publish(EventKeys.forCase(caseId), event);
 
-        // Publish to Kafka
-        try {
-            kafkaTemplate.send("milestone-events", caseId, event);
-            log.debug("Published milestone event to Kafka: {}", event);
-        } catch (Exception e) {
-            log.warn("Failed to publish milestone event to Kafka: {}", e.getMessage());
-        }
+        // Queue for Kafka; written in the caller's transaction, relayed after commit
+        eventOutbox.enqueue("milestone-events", EventKeys.forCase(caseId), event);
     }
 
     /**
@@ -53,7 +75,9 @@ public class WorkflowEventPublisher {
      */
     public void publishWorkflowStateEvent(String workflowId, String workflowType, String oldState, String newState,
             Map<String, Object> context) {
-        log.info("Publishing workflow state event: workflowId={}, {} -> {}", workflowId, oldState, newState);
+        if (eventLog.sample(log, "WorkflowStateEvent")) {
+            log.info("Publishing workflow state event: workflowId={}, {} -> {}", workflowId, oldState, newState);
+        }
 
         WorkflowStateEvent event = WorkflowStateEvent.builder()
                 .workflowId(workflowId)
@@ -64,16 +88,14 @@ public class WorkflowEventPublisher {
                 .timestamp(System.currentTimeMillis())
                 .build();
 
+        // Keyed by the owning case when known, so it is ordered with the case's other events
+        String key = EventKeys.forWorkflow(workflowId, context);
+
         // Publish via Spring Events
-        eventPublisher.publishEvent(event);
+        localEvents.publish(key, event);
 
-        // Publish to Kafka
-        try {
-            kafkaTemplate.send("workflow-state-events", workflowId, event);
-            log.debug("Published workflow state event to Kafka: {}", event);
-        } catch (Exception e) {
-            log.warn("Failed to publish workflow state event to Kafka: {}", e.getMessage());
-        }
+        // Queue for Kafka; written in the caller's transaction, relayed after commit
+        eventOutbox.enqueue("workflow-state-events", key, event);
     }
 
     /**
@@ -81,8 +103,10 @@ public class WorkflowEventPublisher {
      */
     public void publishComplianceEvent(String caseId, String applicantId, String checkType, String status,
             Map<String, Object> checkResult) {
-        log.info("Publishing compliance event: caseId={}, applicantId={}, checkType={}, status={}", caseId, applicantId,
-                checkType, status);
+        if (eventLog.sample(log, "ComplianceEvent")) {
+            log.info("Publishing compliance event: caseId={}, applicantId={}, checkType={}, status={}", caseId,
+                    applicantId, checkType, status);
+        }
 
         ComplianceEvent event = ComplianceEvent.builder()
                 .caseId(caseId)
@@ -94,15 +118,10 @@ public class WorkflowEventPublisher {
                 .build();
 
         // Publish via Spring Events
-        eventPublisher.publishEvent(event);
+        localEvents.publish(EventKeys.forCase(caseId), event);
 
-        // Publish to Kafka
-        try {
-            kafkaTemplate.send("compliance-events", caseId + "-" + applicantId, event);
-            log.debug("Published compliance event to Kafka: {}", event);
-        } catch (Exception e) {
-            log.warn("Failed to publish compliance event to Kafka: {}", e.getMessage());
-        }
+        // Queue for Kafka; written in the caller's transaction, relayed after commit
+        eventOutbox.enqueue("compliance-events", EventKeys.forCase(caseId), event);
     }
 
     /**
@@ -110,8 +129,10 @@ public class WorkflowEventPublisher {
      */
     public void publishJointAccountEvent(String caseId, String primaryApplicantId, String coApplicantId,
             String eventType, Map<String, Object> eventData) {
-        log.info("Publishing joint account event: caseId={}, primary={}, coApplicant={}, eventType={}",
-                caseId, primaryApplicantId, coApplicantId, eventType);
+        if (eventLog.sample(log, "JointAccountEvent")) {
+            log.info("Publishing joint account event: caseId={}, primary={}, coApplicant={}, eventType={}",
+                    caseId, primaryApplicantId, coApplicantId, eventType);
+        }
 
         JointAccountEvent event = JointAccountEvent.builder()
                 .caseId(caseId)
@@ -123,42 +144,81 @@ public class WorkflowEventPublisher {
                 .build();
 
         // Publish via Spring Events
-        eventPublisher.publishEvent(event);
+        localEvents.publish(EventKeys.forCase(caseId), event);
 
-        // Publish to Kafka
-        try {
-            kafkaTemplate.send("joint-account-events", caseId, event);
-            log.debug("Published joint account event to Kafka: {}", event);
-        } catch (Exception e) {
-            log.warn("Failed to publish joint account event to Kafka: {}", e.getMessage());
-        }
+        // Queue for Kafka; written in the caller's transaction, relayed after commit
+        eventOutbox.enqueue("joint-account-events", EventKeys.forCase(caseId), event);
     }
 
     /**
-     * Publish case update event
+     * Publish the full case data as a snapshot (case creation); later updates are deltas against it
      */
-    public void publishCaseUpdateEvent(String caseId, String caseDefinitionKey, Map<String, Object> caseData,
-            Map<String, Object> changes) {
-        log.info("Publishing case update event: caseId={}, caseDefinitionKey={}", caseId, caseDefinitionKey);
-
-        CaseUpdateEvent event = CaseUpdateEvent.builder()
+    public void publishCaseSnapshotEvent(String caseId, String caseDefinitionKey, Map<String, Object> caseData,
+            Integer version, Map<String, Object> changes) {
+        publishCaseUpdateEvent(CaseUpdateEvent.builder()
                 .caseId(caseId)
                 .caseDefinitionKey(caseDefinitionKey)
+                .snapshot(true)
+                .version(version)
                 .caseData(caseData)
                 .changes(changes)
                 .timestamp(System.currentTimeMillis())
-                .build();
+                .build());
+    }
+
+    /**
+     * Publish case update event carrying only the changed fields, as JSON-Patch operations.
+     * {@code changedData} must be exactly the case_data fields this change persisted
+     * (empty when case_data was not touched); anything else belongs in {@code changes}.
+     */
+    public void publishCaseUpdateEvent(String caseId, String caseDefinitionKey, Map<String, Object> changedData,
+            Integer version, Map<String, Object> changes) {
+        publishCaseUpdateEvent(CaseUpdateEvent.builder()
+                .caseId(caseId)
+                .caseDefinitionKey(caseDefinitionKey)
+                .version(version)
+                .patch(CasePatches.set(changedData))
+                .changes(changes)
+                .timestamp(System.currentTimeMillis())
+                .build());
+    }
+
+    private void publishCaseUpdateEvent(CaseUpdateEvent event) {
+        if (eventLog.sample(log, "CaseUpdateEvent")) {
+            log.info("Publishing case update event: caseId={}, caseDefinitionKey={}, version={}, snapshot={}",
+                    event.getCaseId(), event.getCaseDefinitionKey(), event.getVersion(), event.isSnapshot());
+        }
 
         // Publish via Spring Events
-        eventPublisher.publishEvent(event);
+        localEvents.publish(EventKeys.forCase(event.getCaseId()), event);
 
-        // Publish to Kafka
-        try {
-            kafkaTemplate.send("case-update-events", caseId, event);
-            log.debug("Published case update event to Kafka: {}", event);
-        } catch (Exception e) {
-            log.warn("Failed to publish case update event to Kafka: {}", e.getMessage());
+        // Queue for Kafka; written in the caller's transaction, relayed after commit
+        eventOutbox.enqueue("case-update-events", EventKeys.forCase(event.getCaseId()), event);
+    }
+
+    /**
+     * Publish many case update events at once: a single Spring event (so listeners can
+     * write history in one batch) and one batched outbox insert in the caller's
+     * transaction, without per-event logging
+     */
+    public void publishCaseUpdateEvents(List<CaseUpdateEvent> events) {
+        if (events.isEmpty())
+            return;
+        if (eventLog.sample(log, "CaseUpdateBatchEvent")) {
+            log.info("Publishing {} case update events as a batch", events.size());
         }
+
+        // Publish via Spring Events
+        localEvents.publish("case-update-batch", CaseUpdateBatchEvent.builder()
+                .events(events)
+                .timestamp(System.currentTimeMillis())
+                .build());
+
+        // Queue for Kafka in one batched outbox insert
+        eventOutbox.enqueueAll(events.stream()
+                .map(event -> new EventOutbox.OutboxMessage("case-update-events",
+                        EventKeys.forCase(event.getCaseId()), event))
+                .toList());
     }
 
     /**
@@ -166,8 +226,10 @@ public class WorkflowEventPublisher {
      */
     public void publishInteractionStepEvent(String caseId, String interactionKey, String stepName, String action,
             Map<String, Object> stepData) {
-        log.info("Publishing interaction step event: caseId={}, interactionKey={}, stepName={}, action={}",
-                caseId, interactionKey, stepName, action);
+        if (eventLog.sample(log, "InteractionStepEvent")) {
+            log.info("Publishing interaction step event: caseId={}, interactionKey={}, stepName={}, action={}",
+                    caseId, interactionKey, stepName, action);
+        }
 
         InteractionStepEvent event = InteractionStepEvent.builder()
                 .caseId(caseId)
@@ -179,15 +241,10 @@ public class WorkflowEventPublisher {
                 .build();
 
         // Publish via Spring Events
-        eventPublisher.publishEvent(event);
+        localEvents.publish(EventKeys.forCase(caseId), event);
 
-        // Publish to Kafka
-        try {
-            kafkaTemplate.send("interaction-step-events", caseId + "-" + stepName, event);
-            log.debug("Published interaction step event to Kafka: {}", event);
-        } catch (Exception e) {
-            log.warn("Failed to publish interaction step event to Kafka: {}", e.getMessage());
-        }
+        // Queue for Kafka; written in the caller's transaction, relayed after commit
+        eventOutbox.enqueue("interaction-step-events", EventKeys.forCase(caseId), event);
     }
 
     /**
@@ -209,11 +266,12 @@ public class WorkflowEventPublisher {
                 .timestamp(System.currentTimeMillis())
                 .build();
 
-        eventPublisher.publishEvent(event);
+        localEvents.publish(EventKeys.forCase(caseId), event);
+        // Best effort: error paths often run in a transaction that is already failing
         try {
-            kafkaTemplate.send("system-error-events", caseId != null ? caseId : "system", event);
+            eventOutbox.enqueue("system-error-events", EventKeys.forCase(caseId), event);
         } catch (Exception e) {
-            log.warn("Failed to publish system error event to Kafka: {}", e.getMessage());
+            log.warn("Failed to queue system error event for Kafka: {}", e.getMessage());
         }
     }
 
@@ -229,12 +287,8 @@ public class WorkflowEventPublisher {
                 .timestamp(System.currentTimeMillis())
                 .build();
 
-        eventPublisher.publishEvent(event);
-        try {
-            kafkaTemplate.send("performance-metrics", caseId, event);
-        } catch (Exception e) {
-            log.warn("Failed to publish performance event to Kafka: {}", e.getMessage());
-        }
+        localEvents.publish(EventKeys.forCase(caseId), event);
+        eventOutbox.enqueue("performance-metrics", EventKeys.forCase(caseId), event);
     }
 
     /**
@@ -252,12 +306,8 @@ public class WorkflowEventPublisher {
                 .timestamp(System.currentTimeMillis())
                 .build();
 
-        eventPublisher.publishEvent(event);
-        try {
-            kafkaTemplate.send("document-events", caseId, event);
-        } catch (Exception e) {
-            log.warn("Failed to publish document processed event to Kafka: {}", e.getMessage());
-        }
+        localEvents.publish(EventKeys.forCase(caseId), event);
+        eventOutbox.enqueue("document-events", EventKeys.forCase(caseId), event);
     }
 
     /**
@@ -275,12 +325,8 @@ public class WorkflowEventPublisher {
                 .timestamp(System.currentTimeMillis())
                 .build();
 
-        eventPublisher.publishEvent(event);
-        try {
-            kafkaTemplate.send("credit-check-events", caseId, event);
-        } catch (Exception e) {
-            log.warn("Failed to publish credit check event to Kafka: {}", e.getMessage());
-        }
+        localEvents.publish(EventKeys.forCase(caseId), event);
+        eventOutbox.enqueue("credit-check-events", EventKeys.forCase(caseId), event);
     }
 
     /**
@@ -297,11 +343,7 @@ public class WorkflowEventPublisher {
                 .timestamp(System.currentTimeMillis())
                 .build();
 
-        eventPublisher.publishEvent(event);
-        try {
-            kafkaTemplate.send("account-events", caseId, event);
-        } catch (Exception e) {
-            log.warn("Failed to publish account created event to Kafka: {}", e.getMessage());
-        }
+        localEvents.publish(EventKeys.forCase(caseId), event);
+        eventOutbox.enqueue("account-events", EventKeys.forCase(caseId), event);
     }
 }
@@ -33,8 +33,9 @@ public class KafkaEventListener {
 
     @KafkaListener(topics = "case-update-events", groupId = "interaction-service-group")
     public void listenCaseUpdate(CaseUpdateEvent event) {
-        log.info("Received Kafka CaseUpdateEvent: caseId={}, definition={}", event.getCaseId(),
-                event.getCaseDefinitionKey());
+        // Deltas only carry a patch; fold snapshot + deltas with CasePatches.rebuild to get the case data
+        log.info("Received Kafka CaseUpdateEvent: caseId={}, definition={}, version={}, snapshot={}", event.getCaseId(),
+                event.getCaseDefinitionKey(), event.getVersion(), event.isSnapshot());
     }
 
     @KafkaListener(topics = "interaction-step-events", groupId = "interaction-service-group")
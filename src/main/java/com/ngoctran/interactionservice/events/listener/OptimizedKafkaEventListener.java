@@ -1,6 +1,11 @@
 package com.ngoctran.interactionservice.events.listener;
 
 import com.ngoctran.interactionservice.events.*;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.kafka.support.Acknowledgment;
@@ -10,18 +15,35 @@ import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Optimized Kafka Event Listener with batch processing, error handling, and metrics
+ *
+ * Per listener it records {@code kafka.consumer.record.lag} (record timestamp to
+ * receipt), {@code kafka.consumer.processing} per event type,
+ * {@code kafka.consumer.messages} by outcome and {@code kafka.consumer.batch.size}.
+ * Listener names double as client id prefixes, so the native consumer metrics
+ * (offset lag {@code kafka.consumer.fetch.manager.records.lag.max}) can be told apart.
+ * Meters are registered once per listener (and event type) and cached.
  */
 @Component
+@RequiredArgsConstructor
 @Slf4j
 public class OptimizedKafkaEventListener {
 
-    private final AtomicInteger messagesProcessed = new AtomicInteger(0);
-    private final AtomicInteger messagesFailed = new AtomicInteger(0);
-    private final AtomicInteger batchesProcessed = new AtomicInteger(0);
+    private static final String WORKFLOW_STATE_BATCH = "workflow-state-batch";
+    private static final String SYSTEM_ERRORS = "system-errors";
+    private static final String COMPLIANCE_FILTERED = "compliance-filtered";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ListenerMeters> listenerMeters = new ConcurrentHashMap<>();
+
+    private record ListenerMeters(Timer lag, Counter processed, Counter failed, DistributionSummary batchSize,
+            Map<Class<?>, Timer> processing) {
+    }
 
     /**
      * Batch processing for workflow state events - High throughput
@@ -29,32 +51,35 @@ public class OptimizedKafkaEventListener {
     @KafkaListener(
         topics = "workflow-state-events",
         groupId = "interaction-service-optimized",
+        clientIdPrefix = WORKFLOW_STATE_BATCH,
         containerFactory = "batchKafkaListenerContainerFactory",
         concurrency = "3"
     )
     public void listenWorkflowStateBatch(
             @Payload List<WorkflowStateEvent> events,
             @Header(KafkaHeaders.RECEIVED_TOPIC) List<String> topics,
+            @Header(KafkaHeaders.RECEIVED_TIMESTAMP) List<Long> timestamps,
             Acknowledgment acknowledgment) {
 
+        meters(WORKFLOW_STATE_BATCH).batchSize().record(events.size());
         try {
             log.debug("Processing batch of {} workflow state events", events.size());
 
             // Process events in batch
-            for (WorkflowStateEvent event : events) {
-                processWorkflowStateEvent(event);
-                messagesProcessed.incrementAndGet();
+            for (int i = 0; i < events.size(); i++) {
+                WorkflowStateEvent event = events.get(i);
+                recordLag(WORKFLOW_STATE_BATCH, timestamps.get(i));
+                timed(WORKFLOW_STATE_BATCH, event, () -> processWorkflowStateEvent(event));
+                meters(WORKFLOW_STATE_BATCH).processed().increment();
             }
 
-            batchesProcessed.incrementAndGet();
-
             // Manual acknowledgment after successful processing
             acknowledgment.acknowledge();
 
             log.debug("Successfully processed batch of {} events from topics: {}", events.size(), topics);
 
         } catch (Exception e) {
-            messagesFailed.addAndGet(events.size());
+            meters(WORKFLOW_STATE_BATCH).failed().increment(events.size());
             log.error("Failed to process batch of {} events: {}", events.size(), e.getMessage(), e);
 
             // Don't acknowledge failed batches - they will be retried
@@ -68,24 +93,27 @@ public class OptimizedKafkaEventListener {
     @KafkaListener(
         topics = "system-error-events",
         groupId = "interaction-service-critical",
+        clientIdPrefix = SYSTEM_ERRORS,
         containerFactory = "kafkaListenerContainerFactory"
     )
     public void listenSystemErrors(
             @Payload SystemErrorEvent event,
             @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+            @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp,
             Acknowledgment acknowledgment) {
 
+        recordLag(SYSTEM_ERRORS, timestamp);
         try {
             log.error("Processing critical system error event: {}", event);
 
             // Immediate processing for critical errors
-            processSystemError(event);
-            messagesProcessed.incrementAndGet();
+            timed(SYSTEM_ERRORS, event, () -> processSystemError(event));
+            meters(SYSTEM_ERRORS).processed().increment();
 
             acknowledgment.acknowledge();
 
         } catch (Exception e) {
-            messagesFailed.incrementAndGet();
+            meters(SYSTEM_ERRORS).failed().increment();
             log.error("Failed to process critical error event: {}", e.getMessage(), e);
             // Let it retry or go to dead letter topic
         }
@@ -97,15 +125,18 @@ public class OptimizedKafkaEventListener {
     @KafkaListener(
         topics = "compliance-events",
         groupId = "interaction-service-filtered",
+        clientIdPrefix = COMPLIANCE_FILTERED,
         containerFactory = "filteringKafkaListenerContainerFactory",
         filter = "complianceEventFilter"
     )
-    public void listenHighPriorityCompliance(@Payload ComplianceEvent event) {
+    public void listenHighPriorityCompliance(@Payload ComplianceEvent event,
+            @Header(KafkaHeaders.RECEIVED_TIMESTAMP) long timestamp) {
         log.info("Processing high-priority compliance event: caseId={}, status={}",
                 event.getCaseId(), event.getStatus());
 
-        processComplianceEvent(event);
-        messagesProcessed.incrementAndGet();
+        recordLag(COMPLIANCE_FILTERED, timestamp);
+        timed(COMPLIANCE_FILTERED, event, () -> processComplianceEvent(event));
+        meters(COMPLIANCE_FILTERED).processed().increment();
     }
 
     /**
@@ -159,24 +190,46 @@ public class OptimizedKafkaEventListener {
     }
 
     /**
-     * Get listener metrics
+     * Time one event's processing under its listener and event type
      */
-    public java.util.Map<String, Object> getMetrics() {
-        return java.util.Map.of(
-            "messagesProcessed", messagesProcessed.get(),
-            "messagesFailed", messagesFailed.get(),
-            "batchesProcessed", batchesProcessed.get(),
-            "successRate", messagesProcessed.get() > 0 ?
-                (double) messagesProcessed.get() / (messagesProcessed.get() + messagesFailed.get()) * 100 : 0.0
-        );
+    private void timed(String listener, Object event, Runnable processing) {
+        meters(listener).processing().computeIfAbsent(event.getClass(), type -> meterRegistry.timer(
+                "kafka.consumer.processing", "listener", listener, "eventType", type.getSimpleName()))
+                .record(processing);
+    }
+
+    /**
+     * How far behind the producer this listener is: record timestamp to now
+     */
+    private void recordLag(String listener, long recordTimestamp) {
+        meters(listener).lag()
+                .record(Math.max(0, System.currentTimeMillis() - recordTimestamp), TimeUnit.MILLISECONDS);
+    }
+
+    private ListenerMeters meters(String listener) {
+        return listenerMeters.computeIfAbsent(listener, l -> new ListenerMeters(
+                Timer.builder("kafka.consumer.record.lag").tag("listener", l)
+                        .publishPercentileHistogram().register(meterRegistry),
+                meterRegistry.counter("kafka.consumer.messages", "listener", l, "outcome", "processed"),
+                meterRegistry.counter("kafka.consumer.messages", "listener", l, "outcome", "failed"),
+                meterRegistry.summary("kafka.consumer.batch.size", "listener", l),
+                new ConcurrentHashMap<>()));
     }
 
     /**
-     * Reset metrics (for testing)
+     * Get listener metrics (read from the Micrometer meters)
      */
-    public void resetMetrics() {
-        messagesProcessed.set(0);
-        messagesFailed.set(0);
-        batchesProcessed.set(0);
+    public Map<String, Object> getMetrics() {
+        double processed = meterRegistry.find("kafka.consumer.messages").tag("outcome", "processed")
+                .counters().stream().mapToDouble(Counter::count).sum();
+        double failed = meterRegistry.find("kafka.consumer.messages").tag("outcome", "failed")
+                .counters().stream().mapToDouble(Counter::count).sum();
+        return Map.of(
+            "messagesProcessed", (long) processed,
+            "messagesFailed", (long) failed,
+            "batchesProcessed", meterRegistry.find("kafka.consumer.batch.size").summaries().stream()
+                .mapToLong(summary -> summary.count()).sum(),
+            "successRate", processed > 0 ? processed / (processed + failed) * 100 : 0.0
+        );
     }
 }
@@ -1,30 +1,36 @@
 package com.ngoctran.interactionservice.events.listener;
 
 import com.ngoctran.interactionservice.WorkflowHistoryEntity;
-import com.ngoctran.interactionservice.WorkflowHistoryRepository;
 import com.ngoctran.interactionservice.dto.WorkflowExecutionStatus;
 import com.ngoctran.interactionservice.events.*;
+import com.ngoctran.interactionservice.history.WorkflowHistorySink;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.UUID;
 
 /**
  * Listener that captures workflow events and persists them to the history table
+ * through the write-behind {@link WorkflowHistorySink}
  */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class WorkflowHistoryEventListener {
 
-    private final WorkflowHistoryRepository historyRepository;
+    private final WorkflowHistorySink historySink;
+    private final EventLogSampler eventLog;
 
     @EventListener
     public void handleWorkflowStateEvent(WorkflowStateEvent event) {
-        log.info("Handling WorkflowStateEvent for history: {}", event.getWorkflowId());
+        if (eventLog.sample(log, "WorkflowStateEvent")) {
+            log.info("Handling WorkflowStateEvent for history: {}", event.getWorkflowId());
+        }
 
         WorkflowHistoryEntity history = WorkflowHistoryEntity.builder()
                 .historyId(UUID.randomUUID())
@@ -39,12 +45,14 @@ public class WorkflowHistoryEventListener {
                 .changedBy("SYSTEM")
                 .build();
 
-        historyRepository.save(history);
+        historySink.append(history);
     }
 
     @EventListener
     public void handleMilestoneEvent(MilestoneEvent event) {
-        log.info("Handling MilestoneEvent for history: {} - {}", event.getCaseId(), event.getMilestoneKey());
+        if (eventLog.sample(log, "MilestoneEvent")) {
+            log.info("Handling MilestoneEvent for history: {} - {}", event.getCaseId(), event.getMilestoneKey());
+        }
 
         WorkflowHistoryEntity history = WorkflowHistoryEntity.builder()
                 .historyId(UUID.randomUUID())
@@ -57,12 +65,14 @@ public class WorkflowHistoryEventListener {
                 .changedBy("SYSTEM")
                 .build();
 
-        historyRepository.save(history);
+        historySink.append(history);
     }
 
     @EventListener
     public void handleComplianceEvent(ComplianceEvent event) {
-        log.info("Handling ComplianceEvent for history: {} - {}", event.getCaseId(), event.getCheckType());
+        if (eventLog.sample(log, "ComplianceEvent")) {
+            log.info("Handling ComplianceEvent for history: {} - {}", event.getCaseId(), event.getCheckType());
+        }
 
         WorkflowHistoryEntity history = WorkflowHistoryEntity.builder()
                 .historyId(UUID.randomUUID())
@@ -76,31 +86,61 @@ public class WorkflowHistoryEventListener {
                 .metadata(java.util.Map.of("applicantId", event.getApplicantId()))
                 .build();
 
-        historyRepository.save(history);
+        historySink.append(history);
     }
 
     @EventListener
     public void handleCaseUpdateEvent(CaseUpdateEvent event) {
-        log.info("Handling CaseUpdateEvent for history: {}", event.getCaseId());
+        if (eventLog.sample(log, "CaseUpdateEvent")) {
+            log.info("Handling CaseUpdateEvent for history: {}", event.getCaseId());
+        }
 
-        WorkflowHistoryEntity history = WorkflowHistoryEntity.builder()
+        historySink.append(toCaseUpdateHistory(event));
+    }
+
+    @EventListener
+    public void handleCaseUpdateBatchEvent(CaseUpdateBatchEvent batch) {
+        if (eventLog.sample(log, "CaseUpdateBatchEvent")) {
+            log.info("Handling CaseUpdateBatchEvent for history: {} events", batch.getEvents().size());
+        }
+
+        historySink.appendAll(batch.getEvents().stream()
+                .map(this::toCaseUpdateHistory)
+                .toList());
+    }
+
+    /**
+     * Snapshot rows keep the full case data, delta rows only the version and patch
+     */
+    private WorkflowHistoryEntity toCaseUpdateHistory(CaseUpdateEvent event) {
+        Map<String, Object> state = new HashMap<>();
+        if (event.getVersion() != null) {
+            state.put("version", event.getVersion());
+        }
+        if (event.isSnapshot()) {
+            state.put("caseData", event.getCaseData());
+        } else {
+            state.put("patch", event.getPatch());
+        }
+
+        return WorkflowHistoryEntity.builder()
                 .historyId(UUID.randomUUID())
                 .workflowId(event.getCaseId())
                 .workflowType("CASE_UPDATE")
-                .action("CASE_UPDATED")
+                .action(event.isSnapshot() ? "CASE_SNAPSHOT" : "CASE_UPDATED")
                 .changedAt(LocalDateTime.now())
                 .changeDetails(event.getChanges())
-                .metadata(event.getCaseData())
+                .metadata(state)
                 .reason("Case updated for definition: " + event.getCaseDefinitionKey())
                 .changedBy("SYSTEM")
                 .build();
-
-        historyRepository.save(history);
     }
 
     @EventListener
     public void handleInteractionStepEvent(InteractionStepEvent event) {
-        log.info("Handling InteractionStepEvent for history: {} - {}", event.getCaseId(), event.getStepName());
+        if (eventLog.sample(log, "InteractionStepEvent")) {
+            log.info("Handling InteractionStepEvent for history: {} - {}", event.getCaseId(), event.getStepName());
+        }
 
         WorkflowHistoryEntity history = WorkflowHistoryEntity.builder()
                 .historyId(UUID.randomUUID())
@@ -114,12 +154,14 @@ public class WorkflowHistoryEventListener {
                 .metadata(java.util.Map.of("interactionKey", event.getInteractionKey()))
                 .build();
 
-        historyRepository.save(history);
+        historySink.append(history);
     }
 
     @EventListener
     public void handleJointAccountEvent(JointAccountEvent event) {
-        log.info("Handling JointAccountEvent for history: {}", event.getCaseId());
+        if (eventLog.sample(log, "JointAccountEvent")) {
+            log.info("Handling JointAccountEvent for history: {}", event.getCaseId());
+        }
 
         WorkflowHistoryEntity history = WorkflowHistoryEntity.builder()
                 .historyId(UUID.randomUUID())
@@ -135,7 +177,7 @@ public class WorkflowHistoryEventListener {
                         "coApplicantId", event.getCoApplicantId()))
                 .build();
 
-        historyRepository.save(history);
+        historySink.append(history);
     }
 
     private WorkflowExecutionStatus mapToStatus(String state) {
@@ -0,0 +1,77 @@
+package com.ngoctran.interactionservice.events.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+/**
+ * Transactional outbox for Kafka events.
+ *
+ * Events are inserted into event_outbox on the caller's JDBC connection, so they
+ * commit (or roll back) together with the business change; {@link OutboxRelay}
+ * ships them to Kafka afterwards. Enqueueing without an active transaction is
+ * rejected: an auto-committed row would go out even if the business change it
+ * describes later rolls back (or never happens).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EventOutbox {
+
+    private static final String INSERT_SQL = """
+            INSERT INTO event_outbox (topic, aggregate_key, event_type, payload)
+            VALUES (?, ?, ?, CAST(? AS jsonb))
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.outbox.insert-batch-size:500}")
+    private int insertBatchSize;
+
+    public void enqueue(String topic, String key, Object event) {
+        requireTransaction();
+        jdbcTemplate.update(INSERT_SQL, topic, key, event.getClass().getName(), toJson(event));
+    }
+
+    public void enqueueAll(List<OutboxMessage> messages) {
+        if (messages.isEmpty())
+            return;
+        requireTransaction();
+
+        jdbcTemplate.batchUpdate(INSERT_SQL, messages, insertBatchSize, (ps, message) -> {
+            ps.setString(1, message.topic());
+            ps.setString(2, message.key());
+            ps.setString(3, message.event().getClass().getName());
+            ps.setString(4, toJson(message.event()));
+        });
+        log.debug("Enqueued {} outbox messages", messages.size());
+    }
+
+    private static void requireTransaction() {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Outbox enqueue requires an active transaction");
+        }
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox event", e);
+        }
+    }
+
+    /**
+     * An event bound for a topic under an aggregate (partition) key
+     */
+    public record OutboxMessage(String topic, String key, Object event) {
+    }
+}
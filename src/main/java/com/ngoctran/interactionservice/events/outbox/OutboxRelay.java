@@ -0,0 +1,242 @@
+package com.ngoctran.interactionservice.events.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains event_outbox to Kafka.
+ *
+ * Each batch is claimed in a short transaction: under a transaction-scoped advisory
+ * lock the oldest unclaimed rows are leased ({@code claimed_until}) for
+ * {@code lease-ms}, skipping keys that still have an earlier row leased. The claim
+ * commits before anything is sent, so no transaction or lock is held across broker
+ * round trips. Rows are then sent grouped by aggregate key, one row per key per
+ * round, each round waiting for its acks: per-key order is the commit order and a
+ * key stops at its first failed send. Acknowledged rows are deleted and the rest
+ * released in a second short transaction; a crashed relay's lease simply expires.
+ * Delivery is at-least-once.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final String EVENTS_PACKAGE = "com.ngoctran.interactionservice.events.";
+    private static final long RELAY_LOCK_KEY = 0x0b0c_0e1aL;
+
+    private static final String CLAIM_SQL = """
+            WITH batch AS (
+                SELECT id FROM event_outbox o
+                WHERE (o.claimed_until IS NULL OR o.claimed_until < now())
+                  AND NOT EXISTS (SELECT 1 FROM event_outbox c
+                                  WHERE c.topic = o.topic AND c.aggregate_key IS NOT DISTINCT FROM o.aggregate_key
+                                    AND c.id < o.id AND c.claimed_until >= now())
+                ORDER BY id LIMIT ?)
+            UPDATE event_outbox e SET claimed_until = now() + ? * INTERVAL '1 millisecond'
+            FROM batch WHERE e.id = batch.id
+            RETURNING e.id, e.topic, e.aggregate_key, e.event_type, e.payload
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter relayed;
+    private final Counter failed;
+
+    @Value("${app.outbox.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.relay.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.outbox.relay.send-timeout-ms:10000}")
+    private long sendTimeoutMs;
+
+    /**
+     * How long a claimed batch is reserved; sending stops starting new rounds one send-timeout before it ends
+     */
+    @Value("${app.outbox.relay.lease-ms:60000}")
+    private long leaseMs;
+
+    public OutboxRelay(JdbcTemplate jdbcTemplate, KafkaTemplate<String, Object> kafkaTemplate,
+            ObjectMapper objectMapper, PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.kafkaTemplate = kafkaTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.relayed = meterRegistry.counter("outbox.relay.sent");
+        this.failed = meterRegistry.counter("outbox.relay.failed");
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval-ms:200}")
+    public void relay() {
+        if (!enabled)
+            return;
+
+        try {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (relayBatch() < batchSize)
+                    break;
+            }
+        } catch (Exception e) {
+            log.error("Outbox relay failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Ship one batch; returns the number of rows delivered and deleted
+     * (0 when nothing is claimable or another instance is claiming)
+     */
+    private int relayBatch() {
+        List<OutboxRow> rows = transactionTemplate.execute(status -> claim());
+        if (rows == null || rows.isEmpty())
+            return 0;
+
+        long claimedAt = System.currentTimeMillis();
+        List<Long> done = new ArrayList<>(rows.size());
+        int delivered = send(rows, done, claimedAt + leaseMs - sendTimeoutMs);
+
+        Set<Long> doneIds = new HashSet<>(done);
+        List<Long> released = rows.stream().map(OutboxRow::id).filter(id -> !doneIds.contains(id)).toList();
+        int deleted = transactionTemplate.execute(status -> {
+            jdbcTemplate.batchUpdate("UPDATE event_outbox SET claimed_until = NULL WHERE id = ?", released,
+                    batchSize, (ps, id) -> ps.setLong(1, id));
+            return sum(jdbcTemplate.batchUpdate("DELETE FROM event_outbox WHERE id = ?", done, batchSize,
+                    (ps, id) -> ps.setLong(1, id)));
+        });
+
+        relayed.increment(delivered);
+        log.debug("Relayed {}/{} outbox rows, deleted {}, released {}", delivered, rows.size(), deleted,
+                released.size());
+        return deleted;
+    }
+
+    /**
+     * Lease the next batch, oldest first; empty when another instance holds the claim lock
+     */
+    private List<OutboxRow> claim() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                RELAY_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked))
+            return List.of();
+
+        List<OutboxRow> rows = new ArrayList<>(jdbcTemplate.query(CLAIM_SQL,
+                (rs, rowNum) -> new OutboxRow(rs.getLong(1), rs.getString(2), rs.getString(3),
+                        rs.getString(4), rs.getString(5)),
+                batchSize, leaseMs));
+        rows.sort(Comparator.comparingLong(OutboxRow::id)); // RETURNING order is unspecified
+        return rows;
+    }
+
+    /**
+     * Send rows in rounds of at most one row per key until every key is drained, has
+     * failed, or {@code deadline} passes. Adds delivered (and undecodable) row ids to
+     * {@code done}; returns the number delivered.
+     */
+    private int send(List<OutboxRow> rows, List<Long> done, long deadline) {
+        // Group by key, keeping commit order inside each key
+        Map<String, Deque<OutboxRow>> byKey = new LinkedHashMap<>();
+        for (OutboxRow row : rows) {
+            byKey.computeIfAbsent(row.topic() + "|" + row.key(), k -> new ArrayDeque<>()).add(row);
+        }
+
+        int delivered = 0;
+        while (!byKey.isEmpty() && System.currentTimeMillis() < deadline) {
+            Map<String, OutboxRow> roundRows = new LinkedHashMap<>();
+            Map<String, CompletableFuture<?>> roundSends = new LinkedHashMap<>();
+            for (Iterator<Map.Entry<String, Deque<OutboxRow>>> it = byKey.entrySet().iterator(); it.hasNext();) {
+                Map.Entry<String, Deque<OutboxRow>> entry = it.next();
+                OutboxRow row = entry.getValue().poll();
+                if (entry.getValue().isEmpty()) {
+                    it.remove();
+                }
+                Object event = decode(row);
+                if (event == null) {
+                    done.add(row.id()); // undecodable rows would block their key forever; drop them
+                    continue;
+                }
+                roundRows.put(entry.getKey(), row);
+                roundSends.put(entry.getKey(), kafkaTemplate.send(row.topic(), row.key(), event));
+            }
+            kafkaTemplate.flush();
+
+            for (Map.Entry<String, OutboxRow> entry : roundRows.entrySet()) {
+                OutboxRow row = entry.getValue();
+                if (awaitAck(row, roundSends.get(entry.getKey()))) {
+                    done.add(row.id());
+                    delivered++;
+                } else {
+                    failed.increment();
+                    byKey.remove(entry.getKey()); // keep this and later rows of the key for the next run
+                }
+            }
+        }
+        return delivered;
+    }
+
+    private boolean awaitAck(OutboxRow row, CompletableFuture<?> send) {
+        try {
+            send.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (Exception e) {
+            log.warn("Outbox send failed for id={} topic={} key={}: {}", row.id(), row.topic(), row.key(),
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    private Object decode(OutboxRow row) {
+        if (!row.eventType().startsWith(EVENTS_PACKAGE)) {
+            log.error("Dropping outbox row {} with unexpected event type {}", row.id(), row.eventType());
+            return null;
+        }
+        try {
+            return objectMapper.readValue(row.payload(), Class.forName(row.eventType()));
+        } catch (Exception e) {
+            log.error("Dropping undecodable outbox row {}: {}", row.id(), e.getMessage());
+            return null;
+        }
+    }
+
+    private static int sum(int[][] counts) {
+        int total = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                total += Math.max(count, 0);
+            }
+        }
+        return total;
+    }
+
+    private record OutboxRow(long id, String topic, String key, String eventType, String payload) {
+    }
+}
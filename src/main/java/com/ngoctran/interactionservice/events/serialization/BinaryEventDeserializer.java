@@ -0,0 +1,75 @@
+package com.ngoctran.interactionservice.events.serialization;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.ByteBuffer;
+import java.util.Map;
+
+/**
+ * Reads values written by {@link BinaryEventSerializer}: typed frames as their
+ * registered event class, untyped frames as plain maps/lists/scalars.
+ *
+ * Records without the magic byte are handed to Spring's {@link JsonDeserializer},
+ * so topics that still hold JSON records (or JSON producers during a rollout) keep
+ * working with the same consumer configuration.
+ */
+public class BinaryEventDeserializer implements Deserializer<Object> {
+
+    private final EventSchemaRegistry registry;
+    private final ObjectMapper mapper;
+    private final JsonDeserializer<Object> jsonFallback = new JsonDeserializer<>();
+
+    public BinaryEventDeserializer() {
+        this(EventSchemaRegistry.defaultRegistry());
+    }
+
+    public BinaryEventDeserializer(EventSchemaRegistry registry) {
+        this.registry = registry;
+        this.mapper = BinaryEventSerializer.smileMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        jsonFallback.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, null, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null)
+            return null;
+        if (data.length > 1 && data[0] == BinaryEventSerializer.UNTYPED_MAGIC_BYTE) {
+            try {
+                return mapper.readValue(data, 1, data.length - 1, Object.class);
+            } catch (Exception e) {
+                throw new SerializationException("Failed to deserialize untyped value from topic " + topic, e);
+            }
+        }
+        if (data.length < BinaryEventSerializer.HEADER_SIZE || data[0] != BinaryEventSerializer.MAGIC_BYTE) {
+            return headers != null ? jsonFallback.deserialize(topic, headers, data) : jsonFallback.deserialize(topic, data);
+        }
+
+        int schemaId = ByteBuffer.wrap(data, 1, 4).getInt();
+        try {
+            return mapper.readValue(data, BinaryEventSerializer.HEADER_SIZE,
+                    data.length - BinaryEventSerializer.HEADER_SIZE, registry.typeOf(schemaId));
+        } catch (Exception e) {
+            throw new SerializationException("Failed to deserialize schema " + schemaId + " from topic " + topic, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        jsonFallback.close();
+    }
+}
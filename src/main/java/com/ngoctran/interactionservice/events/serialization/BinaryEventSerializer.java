@@ -0,0 +1,68 @@
+package com.ngoctran.interactionservice.events.serialization;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Compact binary Kafka value serializer for workflow events.
+ *
+ * Wire format: one magic byte, a 4-byte schema id from {@link EventSchemaRegistry},
+ * then the event encoded as Smile (Jackson's binary JSON) with shared field names
+ * and short string values back-referenced. No type header is added to the record.
+ *
+ * Values without a registered schema (the Map payloads of FlowableEventBridge) are
+ * written as an untyped frame: {@link #UNTYPED_MAGIC_BYTE}, then Smile. They are read
+ * back as plain maps/lists/scalars.
+ */
+public class BinaryEventSerializer implements Serializer<Object> {
+
+    public static final byte MAGIC_BYTE = 0x1;
+    public static final byte UNTYPED_MAGIC_BYTE = 0x2;
+    static final int HEADER_SIZE = 5;
+
+    private final EventSchemaRegistry registry;
+    private final ObjectMapper mapper;
+
+    public BinaryEventSerializer() {
+        this(EventSchemaRegistry.defaultRegistry());
+    }
+
+    public BinaryEventSerializer(EventSchemaRegistry registry) {
+        this.registry = registry;
+        this.mapper = smileMapper();
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object event) {
+        if (event == null)
+            return null;
+
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+            Integer schemaId = registry.findId(event.getClass());
+            if (schemaId != null) {
+                out.write(ByteBuffer.allocate(HEADER_SIZE).put(MAGIC_BYTE).putInt(schemaId).array());
+            } else {
+                out.write(UNTYPED_MAGIC_BYTE);
+            }
+            mapper.writeValue(out, event);
+            return out.toByteArray();
+        } catch (Exception e) {
+            throw new SerializationException("Failed to serialize " + event.getClass().getSimpleName()
+                    + " for topic " + topic, e);
+        }
+    }
+
+    static ObjectMapper smileMapper() {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new ObjectMapper(factory).findAndRegisterModules();
+    }
+}
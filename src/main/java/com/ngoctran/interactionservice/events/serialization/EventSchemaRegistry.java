@@ -0,0 +1,78 @@
+package com.ngoctran.interactionservice.events.serialization;
+
+import com.ngoctran.interactionservice.events.AccountCreatedEvent;
+import com.ngoctran.interactionservice.events.CaseUpdateEvent;
+import com.ngoctran.interactionservice.events.ComplianceEvent;
+import com.ngoctran.interactionservice.events.CreditCheckEvent;
+import com.ngoctran.interactionservice.events.DocumentProcessedEvent;
+import com.ngoctran.interactionservice.events.InteractionStepEvent;
+import com.ngoctran.interactionservice.events.JointAccountEvent;
+import com.ngoctran.interactionservice.events.MilestoneEvent;
+import com.ngoctran.interactionservice.events.PerformanceMetricsEvent;
+import com.ngoctran.interactionservice.events.SystemErrorEvent;
+import com.ngoctran.interactionservice.events.WorkflowStateEvent;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local stand-in for a schema registry.
+ *
+ * Every Kafka event type gets a stable numeric schema id which is written in the
+ * record header bytes instead of a fully qualified class name. Ids are part of the
+ * wire format: never reuse or renumber them, only append new ones.
+ */
+public class EventSchemaRegistry {
+
+    private static final EventSchemaRegistry DEFAULT = new EventSchemaRegistry()
+            .register(1, WorkflowStateEvent.class)
+            .register(2, CaseUpdateEvent.class)
+            .register(3, MilestoneEvent.class)
+            .register(4, ComplianceEvent.class)
+            .register(5, JointAccountEvent.class)
+            .register(6, SystemErrorEvent.class)
+            .register(7, PerformanceMetricsEvent.class)
+            .register(8, InteractionStepEvent.class)
+            .register(9, AccountCreatedEvent.class)
+            .register(10, CreditCheckEvent.class)
+            .register(11, DocumentProcessedEvent.class);
+
+    private final Map<Integer, Class<?>> byId = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Integer> byType = new ConcurrentHashMap<>();
+
+    public static EventSchemaRegistry defaultRegistry() {
+        return DEFAULT;
+    }
+
+    public EventSchemaRegistry register(int schemaId, Class<?> type) {
+        Class<?> existing = byId.putIfAbsent(schemaId, type);
+        if (existing != null && existing != type) {
+            throw new IllegalStateException("Schema id " + schemaId + " already registered for " + existing.getName());
+        }
+        byType.put(type, schemaId);
+        return this;
+    }
+
+    /**
+     * Schema id of {@code type}, or null when it has none
+     */
+    public Integer findId(Class<?> type) {
+        return byType.get(type);
+    }
+
+    public int idOf(Class<?> type) {
+        Integer id = byType.get(type);
+        if (id == null) {
+            throw new IllegalArgumentException("No schema registered for " + type.getName());
+        }
+        return id;
+    }
+
+    public Class<?> typeOf(int schemaId) {
+        Class<?> type = byId.get(schemaId);
+        if (type == null) {
+            throw new IllegalArgumentException("Unknown schema id: " + schemaId);
+        }
+        return type;
+    }
+}
@@ -0,0 +1,70 @@
+package com.ngoctran.interactionservice.events.serialization;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Producer value serializer wrapper recording {@code kafka.serialization.time}
+ * and {@code kafka.serialization.bytes} per topic and format.
+ */
+public class TimedSerializer implements Serializer<Object> {
+
+    private final Serializer<Object> delegate;
+    private final MeterRegistry meterRegistry;
+    private final String format;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, DistributionSummary> sizes = new ConcurrentHashMap<>();
+
+    public TimedSerializer(Serializer<Object> delegate, MeterRegistry meterRegistry, String format) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.format = format;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        long start = System.nanoTime();
+        byte[] bytes = delegate.serialize(topic, data);
+        record(topic, start, bytes);
+        return bytes;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        long start = System.nanoTime();
+        byte[] bytes = delegate.serialize(topic, headers, data);
+        record(topic, start, bytes);
+        return bytes;
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private void record(String topic, long start, byte[] bytes) {
+        timers.computeIfAbsent(topic, t -> Timer.builder("kafka.serialization.time")
+                .tags("topic", t, "format", format)
+                .register(meterRegistry))
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (bytes != null) {
+            sizes.computeIfAbsent(topic, t -> DistributionSummary.builder("kafka.serialization.bytes")
+                    .baseUnit("bytes")
+                    .tags("topic", t, "format", format)
+                    .register(meterRegistry))
+                    .record(bytes.length);
+        }
+    }
+}
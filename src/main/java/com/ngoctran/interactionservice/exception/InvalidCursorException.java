@@ -0,0 +1,14 @@
+package com.ngoctran.interactionservice.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * A pagination cursor that was not issued by this service (or was mangled in transit)
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String token, Throwable cause) {
+        super("Invalid cursor: " + token, cause);
+    }
+}
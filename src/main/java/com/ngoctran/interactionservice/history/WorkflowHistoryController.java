@@ -0,0 +1,114 @@
+package com.ngoctran.interactionservice.history;
+
+import com.ngoctran.interactionservice.dto.WorkflowHistoryPage;
+import com.ngoctran.interactionservice.dto.WorkflowHistoryRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only audit browsing over workflow_history.
+ *
+ * List endpoints return keyset pages (pass nextCursor back as cursor); the
+ * matching /export endpoints stream every row as NDJSON. Timestamps are ISO
+ * local date-times; without since/from only the last default-lookback-days are read.
+ * /rollups answers count questions from the hourly rollup table.
+ */
+@RestController
+@RequestMapping("/workflow-history")
+@RequiredArgsConstructor
+public class WorkflowHistoryController {
+
+    private final WorkflowHistoryQueryService historyQueryService;
+    private final WorkflowHistoryRollups historyRollups;
+
+    @GetMapping
+    public ResponseEntity<WorkflowHistoryPage> listBetween(
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(historyQueryService.between(from, to, cursor, limit));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportBetween(
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to) {
+        StreamingResponseBody body = out -> historyQueryService.exportBetween(from, to, out);
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/rollups")
+    public ResponseEntity<List<WorkflowHistoryRollup>> rollups(
+            @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String workflowType,
+            @RequestParam(required = false) String action,
+            @RequestParam(defaultValue = "HOUR") WorkflowHistoryRollups.Granularity granularity) {
+        return ResponseEntity.ok(historyRollups.query(from, to != null ? to : LocalDateTime.now(), workflowType,
+                action, granularity));
+    }
+
+    @GetMapping("/types/{workflowType}/count")
+    public ResponseEntity<?> countByWorkflowType(
+            @PathVariable String workflowType,
+            @RequestParam @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime since) {
+        return ResponseEntity.ok(Map.of("workflowType", workflowType, "since", since,
+                "count", historyRollups.countByWorkflowType(workflowType, since)));
+    }
+
+    @GetMapping("/types/{workflowType}")
+    public ResponseEntity<WorkflowHistoryPage> listByWorkflowType(
+            @PathVariable String workflowType,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(historyQueryService.byWorkflowType(workflowType, since, cursor, limit));
+    }
+
+    @GetMapping(value = "/types/{workflowType}/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportByWorkflowType(
+            @PathVariable String workflowType,
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime since) {
+        StreamingResponseBody body = out -> historyQueryService.exportByWorkflowType(workflowType, since, out);
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/failures")
+    public ResponseEntity<WorkflowHistoryPage> listFailures(
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(historyQueryService.failures(since, cursor, limit));
+    }
+
+    @GetMapping(value = "/failures/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportFailures(
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime since) {
+        StreamingResponseBody body = out -> historyQueryService.exportFailures(since, out);
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping("/status-changes")
+    public ResponseEntity<WorkflowHistoryPage> listStatusChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime since,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(historyQueryService.statusChanges(since, cursor, limit));
+    }
+
+    @GetMapping(value = "/status-changes/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportStatusChanges(
+            @RequestParam(required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime since) {
+        StreamingResponseBody body = out -> historyQueryService.exportStatusChanges(since, out);
+        return ResponseEntity.ok(body);
+    }
+}
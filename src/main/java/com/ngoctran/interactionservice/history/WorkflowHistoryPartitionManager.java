@@ -0,0 +1,179 @@
+package com.ngoctran.interactionservice.history;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Keeps the monthly workflow_history partitions (workflow_history_pYYYYMM, see
+ * workflow_history_migration.sql) ahead of time: the current month plus
+ * {@code months-ahead} always exist, so inserts never land in the default
+ * partition. If rows for a month already landed in the default partition they
+ * are moved into the new month's table before it is attached. Partitions whose
+ * whole month is older than {@code retention-months} are detached (the default),
+ * and dropped when {@code expired-action} is DROP, so removing a month of history
+ * is a catalog change instead of a table-wide DELETE.
+ *
+ * Runs at startup and daily; one instance at a time via an advisory lock.
+ */
+@Component
+@Slf4j
+public class WorkflowHistoryPartitionManager {
+
+    private static final String PARTITION_PREFIX = "workflow_history_p";
+    private static final String DEFAULT_PARTITION = "workflow_history_default";
+    private static final long PARTITION_LOCK_KEY = 0x0b0c_0e1bL;
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter created;
+    private final Counter expired;
+
+    @Value("${app.history.partitions.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.history.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    /**
+     * Months of history kept; 0 keeps everything
+     */
+    @Value("${app.history.partitions.retention-months:24}")
+    private int retentionMonths;
+
+    @Value("${app.history.partitions.expired-action:DETACH}")
+    private ExpiredAction expiredAction;
+
+    public enum ExpiredAction {
+        DETACH, DROP
+    }
+
+    public WorkflowHistoryPartitionManager(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.created = meterRegistry.counter("history.partitions", "operation", "created");
+        this.expired = meterRegistry.counter("history.partitions", "operation", "expired");
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${app.history.partitions.cron:0 15 1 * * *}")
+    public void maintain() {
+        if (!enabled)
+            return;
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class,
+                        PARTITION_LOCK_KEY);
+                if (!Boolean.TRUE.equals(locked))
+                    return;
+
+                YearMonth current = YearMonth.now();
+                createAhead(current);
+                if (retentionMonths > 0) {
+                    expireBefore(current.minusMonths(retentionMonths));
+                }
+            });
+        } catch (Exception e) {
+            log.error("Workflow history partition maintenance failed: {}", e.getMessage());
+        }
+    }
+
+    private void createAhead(YearMonth current) {
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = partitionName(month);
+            if (exists(name))
+                continue;
+
+            LocalDate from = month.atDay(1);
+            LocalDate to = month.plusMonths(1).atDay(1);
+            String bounds = "FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+            long stranded = exists(DEFAULT_PARTITION) ? moveOutOfDefault(name, from, to) : -1;
+            if (stranded < 0) {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF workflow_history " + bounds);
+            } else {
+                jdbcTemplate.execute("ALTER TABLE workflow_history ATTACH PARTITION " + name + " " + bounds);
+                log.warn("Moved {} workflow history rows for {} out of the default partition", stranded, month);
+            }
+            created.increment();
+            log.info("Created workflow history partition {} [{}, {})", name, from, to);
+        }
+    }
+
+    /**
+     * Postgres refuses a new range partition while the default partition holds rows
+     * in that range. If it does, create the month's table detached and move those
+     * rows into it (inserts into the default partition wait meanwhile). Returns the
+     * number of rows moved, or -1 when there was nothing to move.
+     */
+    private long moveOutOfDefault(String name, LocalDate from, LocalDate to) {
+        jdbcTemplate.execute("LOCK TABLE " + DEFAULT_PARTITION + " IN SHARE ROW EXCLUSIVE MODE");
+        Boolean stranded = jdbcTemplate.queryForObject("SELECT EXISTS (SELECT 1 FROM " + DEFAULT_PARTITION
+                + " WHERE changed_at >= ? AND changed_at < ?)", Boolean.class, from, to);
+        if (!Boolean.TRUE.equals(stranded))
+            return -1;
+
+        jdbcTemplate.execute("CREATE TABLE " + name
+                + " (LIKE workflow_history INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+        return jdbcTemplate.update("WITH moved AS (DELETE FROM " + DEFAULT_PARTITION
+                + " WHERE changed_at >= ? AND changed_at < ? RETURNING *) INSERT INTO " + name
+                + " SELECT * FROM moved", from, to);
+    }
+
+    /**
+     * Detach (and drop) every monthly partition strictly before {@code oldestKept}
+     */
+    private void expireBefore(YearMonth oldestKept) {
+        for (String name : monthlyPartitions()) {
+            YearMonth month = YearMonth.parse(name.substring(PARTITION_PREFIX.length()), SUFFIX);
+            if (!month.isBefore(oldestKept))
+                continue;
+
+            jdbcTemplate.execute("ALTER TABLE workflow_history DETACH PARTITION " + name);
+            if (expiredAction == ExpiredAction.DROP) {
+                jdbcTemplate.execute("DROP TABLE " + name);
+            }
+            expired.increment();
+            log.info("{} expired workflow history partition {}",
+                    expiredAction == ExpiredAction.DROP ? "Dropped" : "Detached", name);
+        }
+    }
+
+    private List<String> monthlyPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'workflow_history'::regclass AND c.relname ~ '^workflow_history_p[0-9]{6}$'
+                ORDER BY c.relname
+                """, String.class);
+    }
+
+    private boolean exists(String name) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                name));
+    }
+
+    private static String partitionName(YearMonth month) {
+        return PARTITION_PREFIX + month.format(SUFFIX);
+    }
+}
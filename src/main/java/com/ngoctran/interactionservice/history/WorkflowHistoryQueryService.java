@@ -0,0 +1,182 @@
+package com.ngoctran.interactionservice.history;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngoctran.interactionservice.WorkflowHistoryRepository;
+import com.ngoctran.interactionservice.WorkflowHistoryView;
+import com.ngoctran.interactionservice.dto.WorkflowHistoryPage;
+import com.ngoctran.interactionservice.exception.InvalidCursorException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Browsing and export of workflow history without loading whole result sets.
+ *
+ * Pages are keyset queries newest first; exports stream rows straight from a
+ * server-side cursor (JDBC fetch size on a read-only transaction) to the response.
+ * Every query has a lower changed_at bound, {@code app.history.query.default-lookback-days}
+ * back when the caller gives none, so only recent partitions are scanned.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WorkflowHistoryQueryService {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final LocalDateTime OPEN_END = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final UUID MIN_ID = new UUID(0L, 0L);
+    private static final UUID MAX_ID = new UUID(-1L, -1L);
+    private static final int FLUSH_EVERY = 500;
+
+    private final WorkflowHistoryRepository historyRepository;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.history.query.default-lookback-days:30}")
+    private int defaultLookbackDays;
+
+    @Transactional(readOnly = true)
+    public WorkflowHistoryPage byWorkflowType(String workflowType, LocalDateTime since, String cursor, int limit) {
+        Cursor position = Cursor.start(cursor, null);
+        return page(limit, pageable -> historyRepository.findPageByWorkflowType(workflowType, since(since),
+                position.changedAt(), position.historyId(), pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public WorkflowHistoryPage between(LocalDateTime from, LocalDateTime to, String cursor, int limit) {
+        Cursor position = Cursor.start(cursor, to);
+        return page(limit, pageable -> historyRepository.findPageByChangedAtFrom(since(from),
+                position.changedAt(), position.historyId(), pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public WorkflowHistoryPage failures(LocalDateTime since, String cursor, int limit) {
+        Cursor position = Cursor.start(cursor, null);
+        return page(limit, pageable -> historyRepository.findFailedPage(since(since),
+                position.changedAt(), position.historyId(), pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public WorkflowHistoryPage statusChanges(LocalDateTime since, String cursor, int limit) {
+        Cursor position = Cursor.start(cursor, null);
+        return page(limit, pageable -> historyRepository.findStatusChangePage(since(since),
+                position.changedAt(), position.historyId(), pageable));
+    }
+
+    @Transactional(readOnly = true)
+    public void exportByWorkflowType(String workflowType, LocalDateTime since, OutputStream out) {
+        write(historyRepository.streamByWorkflowType(workflowType, since(since)), out);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportBetween(LocalDateTime from, LocalDateTime to, OutputStream out) {
+        write(historyRepository.streamByChangedAtBetween(since(from), to != null ? to : OPEN_END), out);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportFailures(LocalDateTime since, OutputStream out) {
+        write(historyRepository.streamFailed(since(since)), out);
+    }
+
+    @Transactional(readOnly = true)
+    public void exportStatusChanges(LocalDateTime since, OutputStream out) {
+        write(historyRepository.streamStatusChanges(since(since)), out);
+    }
+
+    private LocalDateTime since(LocalDateTime since) {
+        return since != null ? since : LocalDateTime.now().minusDays(defaultLookbackDays);
+    }
+
+    private WorkflowHistoryPage page(int limit, PageQuery query) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+
+        // Fetch one extra row to know whether another page exists
+        List<WorkflowHistoryView> rows = query.fetch(PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = rows.size() > pageSize;
+        List<WorkflowHistoryView> items = hasMore ? rows.subList(0, pageSize) : rows;
+        String nextCursor = null;
+        if (hasMore) {
+            WorkflowHistoryView last = items.get(items.size() - 1);
+            nextCursor = new Cursor(last.getChangedAt(), last.getHistoryId()).encode();
+        }
+
+        return WorkflowHistoryPage.builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Write rows as NDJSON while the cursor is open, flushing every few hundred rows
+     */
+    private void write(Stream<WorkflowHistoryView> rows, OutputStream out) {
+        long written = 0;
+        try (rows) {
+            Iterator<WorkflowHistoryView> it = rows.iterator();
+            while (it.hasNext()) {
+                out.write(objectMapper.writeValueAsBytes(it.next()));
+                out.write('\n');
+                if (++written % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("History export aborted after " + written + " rows", e);
+        }
+        log.debug("Exported {} workflow history rows", written);
+    }
+
+    @FunctionalInterface
+    private interface PageQuery {
+        List<WorkflowHistoryView> fetch(Pageable pageable);
+    }
+
+    /**
+     * Position of the last row of a page, encoded as an opaque URL-safe token
+     */
+    record Cursor(LocalDateTime changedAt, UUID historyId) {
+
+        /**
+         * Decoded cursor, or the starting position: just before {@code to}
+         * (exclusive) when given, otherwise the newest row
+         */
+        static Cursor start(String token, LocalDateTime to) {
+            if (token != null && !token.isBlank())
+                return decode(token);
+            return to != null ? new Cursor(to, MIN_ID) : new Cursor(OPEN_END, MAX_ID);
+        }
+
+        String encode() {
+            String raw = changedAt + "|" + historyId;
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        static Cursor decode(String token) {
+            try {
+                String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+                int sep = raw.indexOf('|');
+                return new Cursor(LocalDateTime.parse(raw.substring(0, sep)), UUID.fromString(raw.substring(sep + 1)));
+            } catch (RuntimeException e) {
+                throw new InvalidCursorException(token, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.ngoctran.interactionservice.history;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-workflow-type retention for workflow_history.
+ *
+ * Each type with a TTL in {@code ttl-days} (and every other type, when
+ * {@code default-ttl-days} is set) is purged with set-based DELETEs of at most
+ * {@code chunk-size} rows, oldest first, each its own short statement. Chunks are
+ * paced to {@code max-rows-per-second} so the purge does not saturate I/O.
+ * Whole months past the global retention are dropped by
+ * {@link WorkflowHistoryPartitionManager}; this handles shorter per-type TTLs.
+ */
+@Component
+@Slf4j
+public class WorkflowHistoryRetention {
+
+    private static final String DELETE_CHUNK = """
+            DELETE FROM workflow_history WHERE (history_id, changed_at) IN (
+                SELECT history_id, changed_at FROM workflow_history
+                WHERE changed_at < ? AND %s
+                ORDER BY changed_at LIMIT ?)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Integer> ttlDays;
+    private final Timer runTimer;
+    private volatile double lastRowsPerSecond;
+
+    @Value("${app.history.retention.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * TTL for types without their own entry; 0 keeps them (partition retention still applies)
+     */
+    @Value("${app.history.retention.default-ttl-days:0}")
+    private int defaultTtlDays;
+
+    @Value("${app.history.retention.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.history.retention.max-chunks-per-run:2000}")
+    private int maxChunksPerRun;
+
+    @Value("${app.history.retention.max-rows-per-second:20000}")
+    private int maxRowsPerSecond;
+
+    public WorkflowHistoryRetention(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry,
+            @Value("${app.history.retention.ttl-days:}") String ttlDays) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.ttlDays = parse(ttlDays);
+        this.runTimer = meterRegistry.timer("history.retention.run");
+        meterRegistry.gauge("history.retention.rows.per.second", this, r -> r.lastRowsPerSecond);
+    }
+
+    @Scheduled(cron = "${app.history.retention.cron:0 45 3 * * *}")
+    public void purge() {
+        if (!enabled)
+            return;
+
+        runTimer.record(() -> {
+            int chunks = 0;
+            for (Map.Entry<String, Integer> entry : ttlDays.entrySet()) {
+                if (entry.getValue() <= 0)
+                    continue; // explicitly kept
+                chunks += purge(entry.getKey(), "workflow_type = ?", List.of(entry.getKey()), entry.getValue(),
+                        chunks);
+            }
+            if (defaultTtlDays > 0) {
+                List<Object> configured = new ArrayList<>(ttlDays.keySet());
+                String others = configured.isEmpty()
+                        ? "TRUE"
+                        : "(workflow_type IS NULL OR workflow_type NOT IN ("
+                                + String.join(", ", Collections.nCopies(configured.size(), "?")) + "))";
+                purge("default", others, configured, defaultTtlDays, chunks);
+            }
+        });
+    }
+
+    /**
+     * Delete rows matching {@code filter} older than {@code ttl} days in paced chunks;
+     * returns the number of chunks used
+     */
+    private int purge(String label, String filter, List<Object> filterArgs, int ttl, int chunksUsed) {
+        String sql = DELETE_CHUNK.formatted(filter);
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(ttl);
+        List<Object> args = new ArrayList<>(filterArgs.size() + 2);
+        args.add(Timestamp.valueOf(cutoff));
+        args.addAll(filterArgs);
+        args.add(chunkSize);
+        Object[] params = args.toArray();
+
+        long started = System.nanoTime();
+        long total = 0;
+        int chunks = 0;
+        try {
+            while (chunksUsed + chunks < maxChunksPerRun) {
+                int deleted = jdbcTemplate.update(sql, params);
+                chunks++;
+                total += deleted;
+                meterRegistry.counter("history.retention.deleted", "workflowType", label).increment(deleted);
+                if (deleted < chunkSize)
+                    break;
+                throttle(total, started);
+            }
+        } catch (Exception e) {
+            log.error("History retention for {} failed after {} chunks: {}", label, chunks, e.getMessage());
+        }
+
+        double seconds = (System.nanoTime() - started) / 1e9;
+        if (total > 0) {
+            lastRowsPerSecond = total / Math.max(seconds, 0.001);
+            log.info("Purged {} {} history rows older than {} days in {} chunks ({} rows/s)", total, label, ttl,
+                    chunks, Math.round(lastRowsPerSecond));
+        }
+        return chunks;
+    }
+
+    /**
+     * Sleep until {@code deleted} rows fit within max-rows-per-second since {@code started}
+     */
+    private void throttle(long deleted, long started) {
+        if (maxRowsPerSecond <= 0)
+            return;
+
+        long dueNanos = TimeUnit.SECONDS.toNanos(deleted) / maxRowsPerSecond;
+        long aheadNanos = dueNanos - (System.nanoTime() - started);
+        if (aheadNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(aheadNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("History retention interrupted", e);
+            }
+        }
+    }
+
+    /**
+     * Parse {@code TYPE=days,TYPE=days}
+     */
+    private static Map<String, Integer> parse(String ttlDays) {
+        Map<String, Integer> parsed = new LinkedHashMap<>();
+        if (ttlDays == null || ttlDays.isBlank())
+            return parsed;
+
+        for (String pair : ttlDays.split(",")) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid history TTL '" + pair + "', expected TYPE=days");
+            }
+            parsed.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return parsed;
+    }
+}
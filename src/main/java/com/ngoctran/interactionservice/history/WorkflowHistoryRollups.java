@@ -0,0 +1,136 @@
+package com.ngoctran.interactionservice.history;
+
+import com.ngoctran.interactionservice.WorkflowHistoryEntity;
+import com.ngoctran.interactionservice.dto.WorkflowHistoryRollup;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Hourly counts per (workflow_type, action, status_after) in workflow_history_rollup.
+ *
+ * {@link WorkflowHistorySink} adds each written batch in the same transaction as
+ * its INSERT, so counts match what was committed. Dashboard queries read
+ * O(buckets) rollup rows instead of counting workflow_history. Counts are not
+ * decremented by retention purges or partition drops; they record what happened.
+ * Missing workflow_type / action / status_after are stored as '' (part of the key).
+ */
+@Repository
+@RequiredArgsConstructor
+public class WorkflowHistoryRollups {
+
+    public enum Granularity {
+        HOUR, DAY
+    }
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO workflow_history_rollup (bucket_hour, workflow_type, action, status_after, row_count)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (bucket_hour, workflow_type, action, status_after)
+            DO UPDATE SET row_count = workflow_history_rollup.row_count + EXCLUDED.row_count
+            """;
+
+    private static final Comparator<Key> KEY_ORDER = Comparator.comparing(Key::bucketHour)
+            .thenComparing(Key::workflowType)
+            .thenComparing(Key::action)
+            .thenComparing(Key::statusAfter);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Add a batch of written history rows to the rollups. Keys are upserted in a
+     * fixed order so concurrent writers cannot deadlock on each other.
+     */
+    public void record(List<WorkflowHistoryEntity> rows) {
+        if (rows.isEmpty())
+            return;
+
+        Map<Key, Long> counts = new TreeMap<>(KEY_ORDER);
+        for (WorkflowHistoryEntity row : rows) {
+            counts.merge(Key.of(row), 1L, Long::sum);
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(counts.entrySet()), counts.size(), (ps, entry) -> {
+            Key key = entry.getKey();
+            ps.setTimestamp(1, Timestamp.valueOf(key.bucketHour()));
+            ps.setString(2, key.workflowType());
+            ps.setString(3, key.action());
+            ps.setString(4, key.statusAfter());
+            ps.setLong(5, entry.getValue());
+        });
+    }
+
+    /**
+     * Counts in [from, to), per bucket and key, optionally narrowed to one workflow type and/or action
+     */
+    public List<WorkflowHistoryRollup> query(LocalDateTime from, LocalDateTime to, String workflowType,
+            String action, Granularity granularity) {
+        String bucket = granularity == Granularity.DAY ? "date_trunc('day', bucket_hour)" : "bucket_hour";
+        StringBuilder sql = new StringBuilder("SELECT ").append(bucket).append("""
+                 AS bucket, workflow_type, action, status_after, SUM(row_count) AS row_count
+                FROM workflow_history_rollup WHERE bucket_hour >= ? AND bucket_hour < ?""");
+
+        List<Object> args = new ArrayList<>();
+        args.add(Timestamp.valueOf(from.truncatedTo(ChronoUnit.HOURS)));
+        args.add(Timestamp.valueOf(to));
+        if (workflowType != null) {
+            sql.append(" AND workflow_type = ?");
+            args.add(workflowType);
+        }
+        if (action != null) {
+            sql.append(" AND action = ?");
+            args.add(action);
+        }
+        sql.append(" GROUP BY 1, workflow_type, action, status_after ORDER BY 1, workflow_type, action, status_after");
+
+        return jdbcTemplate.query(sql.toString(), (rs, rowNum) -> mapRow(rs), args.toArray());
+    }
+
+    /**
+     * Total history rows for a workflow type since a point in time (hour precision)
+     */
+    public long countByWorkflowType(String workflowType, LocalDateTime since) {
+        Long count = jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(row_count), 0) FROM workflow_history_rollup
+                WHERE workflow_type = ? AND bucket_hour >= ?
+                """, Long.class, workflowType != null ? workflowType : "",
+                Timestamp.valueOf(since.truncatedTo(ChronoUnit.HOURS)));
+        return count != null ? count : 0L;
+    }
+
+    private WorkflowHistoryRollup mapRow(ResultSet rs) throws SQLException {
+        return WorkflowHistoryRollup.builder()
+                .bucket(rs.getTimestamp("bucket").toLocalDateTime())
+                .workflowType(fromKey(rs.getString("workflow_type")))
+                .action(fromKey(rs.getString("action")))
+                .statusAfter(fromKey(rs.getString("status_after")))
+                .count(rs.getLong("row_count"))
+                .build();
+    }
+
+    private static String fromKey(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private record Key(LocalDateTime bucketHour, String workflowType, String action, String statusAfter) {
+
+        static Key of(WorkflowHistoryEntity row) {
+            LocalDateTime changedAt = row.getChangedAt() != null ? row.getChangedAt() : LocalDateTime.now();
+            return new Key(changedAt.truncatedTo(ChronoUnit.HOURS),
+                    row.getWorkflowType() != null ? row.getWorkflowType() : "",
+                    row.getAction() != null ? row.getAction() : "",
+                    row.getStatusAfter() != null ? row.getStatusAfter().name() : "");
+        }
+    }
+}
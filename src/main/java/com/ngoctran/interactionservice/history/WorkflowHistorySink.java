@@ -0,0 +1,232 @@
+package com.ngoctran.interactionservice.history;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ngoctran.interactionservice.WorkflowHistoryEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Write-behind sink for workflow_history rows.
+ *
+ * Rows are buffered and written by a single flusher thread as multi-row INSERTs
+ * (one statement per {@code batch-size} rows) once a batch is full or every
+ * {@code flush-interval-ms}. When the buffer is full the caller flushes inline
+ * (backpressure instead of loss). Whatever is buffered is flushed on shutdown;
+ * rows arriving after that are written immediately. A failed batch is retried
+ * row by row so one bad row does not take its neighbours down. Each write also
+ * updates the hourly {@link WorkflowHistoryRollups} in the same transaction.
+ */
+@Component
+@Slf4j
+public class WorkflowHistorySink {
+
+    private static final String COLUMNS = """
+            history_id, workflow_id, workflow_type, action, status_before, status_after, changed_by,
+            changed_at, change_details, reason, notes, ip_address, user_agent, session_id, metadata, version""";
+    private static final String ROW = "(?, ?, ?, ?, ?, ?, ?, ?, CAST(? AS jsonb), ?, ?, ?, ?, ?, CAST(? AS jsonb), 0)";
+    private static final int PARAMS_PER_ROW = 15;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final WorkflowHistoryRollups rollups;
+    private final boolean enabled;
+    private final boolean rollupsEnabled;
+    private final int batchSize;
+    private final String fullBatchSql;
+    private final BlockingQueue<WorkflowHistoryEntity> buffer;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private volatile boolean running = true;
+
+    private final Counter written;
+    private final Counter failed;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+
+    public WorkflowHistorySink(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager, WorkflowHistoryRollups rollups,
+            MeterRegistry meterRegistry,
+            @Value("${app.history.sink.enabled:true}") boolean enabled,
+            @Value("${app.history.rollups.enabled:true}") boolean rollupsEnabled,
+            @Value("${app.history.sink.batch-size:500}") int batchSize,
+            @Value("${app.history.sink.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${app.history.sink.capacity:50000}") int capacity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rollups = rollups;
+        this.enabled = enabled;
+        this.rollupsEnabled = rollupsEnabled;
+        this.batchSize = batchSize;
+        this.fullBatchSql = insertSql(batchSize);
+        this.buffer = new ArrayBlockingQueue<>(capacity);
+
+        this.written = meterRegistry.counter("history.sink.rows", "outcome", "written");
+        this.failed = meterRegistry.counter("history.sink.rows", "outcome", "failed");
+        this.flushTimer = meterRegistry.timer("history.sink.flush");
+        this.batchSizes = meterRegistry.summary("history.sink.batch.size");
+        meterRegistry.gauge("history.sink.buffered", buffer, BlockingQueue::size);
+
+        this.flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "history-sink-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled) {
+            flusher.scheduleWithFixedDelay(this::flush, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public void append(WorkflowHistoryEntity row) {
+        if (!enabled || !running) {
+            write(List.of(row));
+            return;
+        }
+
+        while (!buffer.offer(row)) {
+            flush(); // buffer full: drain on the caller's thread
+        }
+        if (buffer.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flush();
+            });
+        }
+    }
+
+    public void appendAll(List<WorkflowHistoryEntity> rows) {
+        rows.forEach(this::append);
+    }
+
+    /**
+     * Write everything buffered so far, in batches
+     */
+    public synchronized void flush() {
+        List<WorkflowHistoryEntity> batch = new ArrayList<>(batchSize);
+        while (buffer.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        flusher.shutdown();
+        flusher.awaitTermination(5, TimeUnit.SECONDS);
+        flush();
+        log.info("History sink flushed on shutdown");
+    }
+
+    private void write(List<WorkflowHistoryEntity> rows) {
+        batchSizes.record(rows.size());
+        try {
+            flushTimer.record(() -> insertWithRollups(rows));
+            written.increment(rows.size());
+        } catch (Exception e) {
+            log.warn("History batch insert of {} rows failed, retrying row by row: {}", rows.size(), e.getMessage());
+            for (WorkflowHistoryEntity row : rows) {
+                try {
+                    insertWithRollups(List.of(row));
+                    written.increment();
+                } catch (Exception rowError) {
+                    failed.increment();
+                    log.error("Dropping history row for workflow {} ({}): {}", row.getWorkflowId(), row.getAction(),
+                            rowError.getMessage());
+                }
+            }
+        }
+    }
+
+    private void insertWithRollups(List<WorkflowHistoryEntity> rows) {
+        transactionTemplate.executeWithoutResult(status -> {
+            insert(rows);
+            if (rollupsEnabled) {
+                rollups.record(rows);
+            }
+        });
+    }
+
+    private void insert(List<WorkflowHistoryEntity> rows) {
+        String sql = rows.size() == batchSize ? fullBatchSql : insertSql(rows.size());
+        jdbcTemplate.update(sql, ps -> {
+            int index = 1;
+            for (WorkflowHistoryEntity row : rows) {
+                bind(ps, index, row);
+                index += PARAMS_PER_ROW;
+            }
+        });
+    }
+
+    private void bind(PreparedStatement ps, int i, WorkflowHistoryEntity row) throws SQLException {
+        if (row.getHistoryId() == null) {
+            row.setHistoryId(UUID.randomUUID());
+        }
+        if (row.getChangedAt() == null) {
+            row.setChangedAt(LocalDateTime.now());
+        }
+
+        ps.setObject(i, row.getHistoryId());
+        ps.setString(i + 1, row.getWorkflowId());
+        ps.setString(i + 2, row.getWorkflowType());
+        ps.setString(i + 3, row.getAction());
+        ps.setString(i + 4, row.getStatusBefore() != null ? row.getStatusBefore().name() : null);
+        ps.setString(i + 5, row.getStatusAfter() != null ? row.getStatusAfter().name() : null);
+        ps.setString(i + 6, row.getChangedBy());
+        ps.setTimestamp(i + 7, Timestamp.valueOf(row.getChangedAt()));
+        ps.setString(i + 8, toJson(row.getChangeDetails()));
+        ps.setString(i + 9, row.getReason());
+        ps.setString(i + 10, row.getNotes());
+        ps.setString(i + 11, row.getIpAddress());
+        ps.setString(i + 12, row.getUserAgent());
+        ps.setString(i + 13, row.getSessionId());
+        ps.setString(i + 14, toJson(row.getMetadata()));
+    }
+
+    private String toJson(Map<String, Object> value) {
+        if (value == null)
+            return null;
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize history JSON", e);
+        }
+    }
+
+    private static String insertSql(int rows) {
+        StringBuilder sql = new StringBuilder(64 + rows * (ROW.length() + 2))
+                .append("INSERT INTO workflow_history (").append(COLUMNS).append(") VALUES ");
+        for (int i = 0; i < rows; i++) {
+            if (i > 0)
+                sql.append(", ");
+            sql.append(ROW);
+        }
+        return sql.toString();
+    }
+}
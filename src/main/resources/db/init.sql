@@ -30,6 +30,52 @@ CREATE TABLE IF NOT EXISTS flw_case (
 CREATE INDEX idx_flow_case_status ON flw_case(status);
 CREATE INDEX idx_flow_case_customer ON flw_case(customer_id);
 CREATE INDEX idx_flow_case_workflow ON flw_case(workflow_instance_id);
+-- Keyset pagination for case listing: (created_at, id) descending, optionally filtered
+CREATE INDEX idx_flow_case_created_id ON flw_case(created_at DESC, id DESC);
+CREATE INDEX idx_flow_case_status_created_id ON flw_case(status, created_at DESC, id DESC);
+CREATE INDEX idx_flow_case_customer_created_id ON flw_case(customer_id, created_at DESC, id DESC);
+CREATE INDEX idx_flow_case_status_updated ON flw_case(status, updated_at);
+
+-- Cold storage for terminal cases: whole row kept as one lz4-compressed JSONB payload
+CREATE TABLE IF NOT EXISTS flw_case_archive (
+    id UUID PRIMARY KEY,
+    customer_id VARCHAR(64),
+    case_definition_key VARCHAR(255),
+    status VARCHAR(32),
+    created_at TIMESTAMPTZ,
+    updated_at TIMESTAMPTZ,
+    archived_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    payload JSONB NOT NULL
+);
+ALTER TABLE flw_case_archive ALTER COLUMN payload SET COMPRESSION lz4;
+CREATE INDEX IF NOT EXISTS idx_flow_case_archive_customer ON flw_case_archive(customer_id);
+
+-- Transactional outbox for Kafka events (drained in id order by OutboxRelay)
+CREATE TABLE IF NOT EXISTS event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    aggregate_key VARCHAR(255),
+    event_type VARCHAR(255) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    claimed_until TIMESTAMPTZ -- relay lease; NULL or past = claimable
+);
+ALTER TABLE event_outbox ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMPTZ;
+CREATE INDEX IF NOT EXISTS idx_event_outbox_claimed ON event_outbox(topic, aggregate_key, id)
+    WHERE claimed_until IS NOT NULL;
+
+-- Lịch sử các bước của Case (append-only, thay thế cột audit_trail)
+CREATE SEQUENCE IF NOT EXISTS flw_case_audit_seq;
+
+CREATE TABLE IF NOT EXISTS flw_case_audit (
+    case_id UUID NOT NULL,
+    seq BIGINT NOT NULL DEFAULT nextval('flw_case_audit_seq'),
+    step_name VARCHAR(128),
+    submitted_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    data JSONB,
+    client_context JSONB,
+    PRIMARY KEY (case_id, seq)
+);
 
 
 -- =============================================================================
@@ -1,9 +1,23 @@
 -- Migration script for Workflow History table
 -- Execute this script to create the workflow_history table in PostgreSQL
 
--- Create workflow_history table
+-- workflow_history is range-partitioned by month on changed_at. Partitions are named
+-- workflow_history_pYYYYMM; WorkflowHistoryPartitionManager creates upcoming months and
+-- detaches/drops expired ones. The primary key has to include the partition column.
+
+-- An existing unpartitioned table is renamed aside and copied into the partitioned one below
+DO $$
+BEGIN
+    IF EXISTS (SELECT 1 FROM pg_class WHERE relname = 'workflow_history' AND relkind = 'r') THEN
+        DROP VIEW IF EXISTS recent_workflow_activity;
+        DROP VIEW IF EXISTS workflow_failure_analysis;
+        ALTER TABLE workflow_history RENAME TO workflow_history_unpartitioned;
+        ALTER INDEX IF EXISTS workflow_history_pkey RENAME TO workflow_history_unpartitioned_pkey;
+    END IF;
+END $$;
+
 CREATE TABLE IF NOT EXISTS workflow_history (
-    history_id UUID PRIMARY KEY DEFAULT gen_random_uuid(),
+    history_id UUID NOT NULL DEFAULT gen_random_uuid(),
     workflow_id VARCHAR(255) NOT NULL,
     workflow_type VARCHAR(100),
     action VARCHAR(100),
@@ -18,12 +32,43 @@ CREATE TABLE IF NOT EXISTS workflow_history (
     user_agent TEXT,
     session_id VARCHAR(255),
     metadata JSONB,
-    version BIGINT DEFAULT 0
-);
-
--- Create indexes for better query performance
-CREATE INDEX IF NOT EXISTS idx_workflow_history_workflow_id ON workflow_history(workflow_id);
-CREATE INDEX IF NOT EXISTS idx_workflow_history_workflow_type ON workflow_history(workflow_type);
+    version BIGINT DEFAULT 0,
+    PRIMARY KEY (history_id, changed_at)
+) PARTITION BY RANGE (changed_at);
+
+-- Catches rows outside every monthly partition so inserts never fail; should stay empty
+CREATE TABLE IF NOT EXISTS workflow_history_default PARTITION OF workflow_history DEFAULT;
+
+-- Monthly partitions from the oldest existing row through three months ahead, then the copy
+DO $$
+DECLARE
+    part_month DATE := date_trunc('month', CURRENT_DATE)::date;
+BEGIN
+    IF to_regclass('workflow_history_unpartitioned') IS NOT NULL THEN
+        EXECUTE 'SELECT LEAST($1, date_trunc(''month'', min(changed_at))::date) FROM workflow_history_unpartitioned'
+            INTO part_month USING part_month;
+    END IF;
+
+    WHILE part_month <= (date_trunc('month', CURRENT_DATE) + INTERVAL '3 months')::date LOOP
+        EXECUTE format('CREATE TABLE IF NOT EXISTS %I PARTITION OF workflow_history FOR VALUES FROM (%L) TO (%L)',
+                       'workflow_history_p' || to_char(part_month, 'YYYYMM'),
+                       part_month, (part_month + INTERVAL '1 month')::date);
+        part_month := (part_month + INTERVAL '1 month')::date;
+    END LOOP;
+
+    IF to_regclass('workflow_history_unpartitioned') IS NOT NULL THEN
+        EXECUTE 'INSERT INTO workflow_history (history_id, workflow_id, workflow_type, action, status_before, '
+             || 'status_after, changed_by, changed_at, change_details, reason, notes, ip_address, user_agent, '
+             || 'session_id, metadata, version) '
+             || 'SELECT history_id, workflow_id, workflow_type, action, status_before, status_after, changed_by, '
+             || 'changed_at, change_details, reason, notes, ip_address, user_agent, session_id, metadata, version '
+             || 'FROM workflow_history_unpartitioned';
+        DROP TABLE workflow_history_unpartitioned;
+    END IF;
+END $$;
+
+-- Indexes are declared on the parent and created on every partition. Single-column
+-- workflow_id / workflow_type indexes are left out: the composites below lead with them.
 CREATE INDEX IF NOT EXISTS idx_workflow_history_changed_by ON workflow_history(changed_by);
 CREATE INDEX IF NOT EXISTS idx_workflow_history_action ON workflow_history(action);
 CREATE INDEX IF NOT EXISTS idx_workflow_history_status_before ON workflow_history(status_before);
@@ -41,7 +86,7 @@ CREATE INDEX IF NOT EXISTS idx_workflow_history_workflow_date ON workflow_histor
 CREATE INDEX IF NOT EXISTS idx_workflow_history_type_date ON workflow_history(workflow_type, changed_at DESC);
 
 -- Add comments for documentation
-COMMENT ON TABLE workflow_history IS 'Audit trail for all workflow state changes and actions';
+COMMENT ON TABLE workflow_history IS 'Audit trail for all workflow state changes and actions, partitioned by month on changed_at';
 COMMENT ON COLUMN workflow_history.history_id IS 'Unique identifier for each history entry';
 COMMENT ON COLUMN workflow_history.workflow_id IS 'ID of the workflow this history belongs to';
 COMMENT ON COLUMN workflow_history.workflow_type IS 'Type of workflow (KYC_ONBOARDING, PAYMENT, RECONCILIATION, etc.)';
@@ -91,6 +136,32 @@ FROM workflow_history
 WHERE action = 'FAILURE' AND status_after = 'FAILED'
 ORDER BY changed_at DESC;
 
+-- Hourly counts per (workflow_type, action, status_after), maintained by WorkflowHistorySink
+-- in the same transaction as the history inserts. Missing values are stored as ''.
+CREATE TABLE IF NOT EXISTS workflow_history_rollup (
+    bucket_hour TIMESTAMP NOT NULL,
+    workflow_type VARCHAR(100) NOT NULL DEFAULT '',
+    action VARCHAR(100) NOT NULL DEFAULT '',
+    status_after VARCHAR(50) NOT NULL DEFAULT '',
+    row_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (bucket_hour, workflow_type, action, status_after)
+);
+CREATE INDEX IF NOT EXISTS idx_workflow_history_rollup_type_bucket
+    ON workflow_history_rollup(workflow_type, bucket_hour);
+
+COMMENT ON TABLE workflow_history_rollup IS 'Pre-aggregated hourly workflow_history counts for dashboards';
+
+-- Backfill from existing history the first time the rollup table is created
+INSERT INTO workflow_history_rollup (bucket_hour, workflow_type, action, status_after, row_count)
+SELECT date_trunc('hour', changed_at),
+       COALESCE(workflow_type, ''),
+       COALESCE(action, ''),
+       COALESCE(status_after, ''),
+       COUNT(*)
+FROM workflow_history
+WHERE NOT EXISTS (SELECT 1 FROM workflow_history_rollup)
+GROUP BY 1, 2, 3, 4;
+
 -- Grant permissions (adjust as needed for your security model)
 -- GRANT SELECT, INSERT ON workflow_history TO your_app_user;
 -- GRANT SELECT ON recent_workflow_activity TO your_app_user;
@@ -119,6 +190,89 @@ ALTER TABLE flw_case ADD COLUMN IF NOT EXISTS compliance_status TEXT; -- JSON co
 ALTER TABLE flw_case ADD COLUMN IF NOT EXISTS joint_account_data TEXT; -- JSON joint account info
 ALTER TABLE flw_case ADD COLUMN IF NOT EXISTS bpmn_process_id VARCHAR(255); -- BPMN process instance ID
 ALTER TABLE flw_case ADD COLUMN IF NOT EXISTS expires_at TIMESTAMPTZ; -- For cleanup
+ALTER TABLE flw_case ADD COLUMN IF NOT EXISTS resume_token_hash VARCHAR(64); -- SHA-256 hex of resume token
+
+-- Resume tokens are looked up by hash; hash existing tokens and drop the plain values
+UPDATE flw_case
+SET resume_token_hash = encode(sha256(convert_to(resume_token, 'UTF8')), 'hex'),
+    resume_token = NULL
+WHERE resume_token IS NOT NULL AND resume_token_hash IS NULL;
+-- One case per token hash, so a lookup can never resolve to the wrong case
+DROP INDEX IF EXISTS idx_flow_case_resume_token_hash;
+CREATE UNIQUE INDEX IF NOT EXISTS idx_flow_case_resume_token_hash_uq ON flw_case(resume_token_hash)
+    WHERE resume_token_hash IS NOT NULL;
+
+-- Append-only case audit (replaces the flw_case.audit_trail JSON blob)
+CREATE SEQUENCE IF NOT EXISTS flw_case_audit_seq;
+
+CREATE TABLE IF NOT EXISTS flw_case_audit (
+    case_id UUID NOT NULL,
+    seq BIGINT NOT NULL DEFAULT nextval('flw_case_audit_seq'),
+    step_name VARCHAR(128),
+    submitted_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    data JSONB,
+    client_context JSONB,
+    PRIMARY KEY (case_id, seq)
+);
+
+COMMENT ON TABLE flw_case_audit IS 'Append-only step history per case, keyed by (case_id, seq)';
+
+-- Backfill existing audit_trail blobs, preserving step order, then release the blob storage
+INSERT INTO flw_case_audit (case_id, step_name, submitted_at, data, client_context)
+SELECT c.id,
+       s.step ->> 'stepName',
+       COALESCE((s.step ->> 'submittedAt')::timestamptz, c.updated_at),
+       s.step -> 'data',
+       s.step -> 'clientContext'
+FROM flw_case c
+CROSS JOIN LATERAL jsonb_array_elements(c.audit_trail -> 'steps') WITH ORDINALITY AS s(step, ord)
+WHERE c.audit_trail IS NOT NULL
+  AND NOT EXISTS (SELECT 1 FROM flw_case_audit a WHERE a.case_id = c.id)
+ORDER BY c.id, s.ord;
+
+UPDATE flw_case SET audit_trail = NULL
+WHERE audit_trail IS NOT NULL
+  AND EXISTS (SELECT 1 FROM flw_case_audit a WHERE a.case_id = flw_case.id);
+
+-- Keyset pagination for case listing: (created_at, id) descending, optionally filtered
+CREATE INDEX IF NOT EXISTS idx_flow_case_created_id ON flw_case(created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_flow_case_status_created_id ON flw_case(status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_flow_case_customer_created_id ON flw_case(customer_id, created_at DESC, id DESC);
+
+-- Expiry sweeper: only PAUSED cases carry an expiry worth scanning
+CREATE INDEX IF NOT EXISTS idx_flow_case_paused_expires ON flw_case(expires_at) WHERE status = 'PAUSED';
+CREATE INDEX IF NOT EXISTS idx_proc_map_case ON process_mapping(case_id);
+
+-- Archiver: terminal cases by age
+CREATE INDEX IF NOT EXISTS idx_flow_case_status_updated ON flw_case(status, updated_at);
+
+-- Cold storage for terminal cases: whole row kept as one lz4-compressed JSONB payload
+CREATE TABLE IF NOT EXISTS flw_case_archive (
+    id UUID PRIMARY KEY,
+    customer_id VARCHAR(64),
+    case_definition_key VARCHAR(255),
+    status VARCHAR(32),
+    created_at TIMESTAMPTZ,
+    updated_at TIMESTAMPTZ,
+    archived_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    payload JSONB NOT NULL
+);
+ALTER TABLE flw_case_archive ALTER COLUMN payload SET COMPRESSION lz4;
+CREATE INDEX IF NOT EXISTS idx_flow_case_archive_customer ON flw_case_archive(customer_id);
+
+-- Transactional outbox for Kafka events (drained in id order by OutboxRelay)
+CREATE TABLE IF NOT EXISTS event_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    topic VARCHAR(255) NOT NULL,
+    aggregate_key VARCHAR(255),
+    event_type VARCHAR(255) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at TIMESTAMPTZ NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    claimed_until TIMESTAMPTZ -- relay lease; NULL or past = claimable
+);
+ALTER TABLE event_outbox ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMPTZ;
+CREATE INDEX IF NOT EXISTS idx_event_outbox_claimed ON event_outbox(topic, aggregate_key, id)
+    WHERE claimed_until IS NOT NULL;
 
 -- Create indexes for case_definitions
 CREATE INDEX IF NOT EXISTS idx_case_definitions_key ON case_definitions(key);
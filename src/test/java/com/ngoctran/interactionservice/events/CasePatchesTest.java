@@ -0,0 +1,126 @@
+package com.ngoctran.interactionservice.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CasePatchesTest {
+
+    private static final String CASE_ID = "3f2b8c1e-7a4d-4c1b-9e2f-0a1b2c3d4e5f";
+
+    @Test
+    void setAddsOneOperationPerTopLevelField() {
+        Map<String, Object> changed = new LinkedHashMap<>();
+        changed.put("city", "Hanoi");
+        changed.put("a/b~c", 1);
+
+        assertThat(CasePatches.set(changed)).containsExactly(
+                Map.of("op", "add", "path", "/city", "value", "Hanoi"),
+                Map.of("op", "add", "path", "/a~1b~0c", "value", 1));
+        assertThat(CasePatches.set(null)).isEmpty();
+        assertThat(CasePatches.set(Map.of())).isEmpty();
+    }
+
+    @Test
+    void applySetsReplacesAndRemovesMembers() {
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("city", "Hue");
+        state.put("obsolete", true);
+
+        CasePatches.apply(state, List.of(
+                Map.of("op", "replace", "path", "/city", "value", "Hanoi"),
+                Map.of("op", "add", "path", "/address/street", "value", "Trang Tien"),
+                Map.of("op", "add", "path", "/a~1b", "value", 2),
+                Map.of("op", "remove", "path", "/obsolete")));
+
+        assertThat(state).isEqualTo(Map.of(
+                "city", "Hanoi",
+                "address", Map.of("street", "Trang Tien"),
+                "a/b", 2));
+    }
+
+    @Test
+    void applyCopiesValuesSoLaterChangesDoNotLeakIn() {
+        List<Object> tags = new ArrayList<>(List.of("x"));
+        Map<String, Object> state = new LinkedHashMap<>();
+
+        CasePatches.apply(state, List.of(Map.of("op", "add", "path", "/tags", "value", tags)));
+        tags.add("y");
+
+        assertThat(state.get("tags")).isEqualTo(List.of("x"));
+    }
+
+    @Test
+    void applyRejectsWholeDocumentAndUnknownOps() {
+        Map<String, Object> state = new LinkedHashMap<>();
+
+        assertThatThrownBy(() -> CasePatches.apply(state, List.of(Map.of("op", "add", "path", "", "value", 1))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CasePatches.apply(state, List.of(Map.of("op", "move", "path", "/a"))))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> CasePatches.apply(state, List.of(Map.of("op", "add", "path", "a", "value", 1))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rebuildFoldsSnapshotAndLaterDeltas() {
+        Map<String, Object> rebuilt = CasePatches.rebuild(List.of(
+                snapshot(1, Map.of("customerId", "C-1", "step", "start")),
+                delta(2, Map.of("step", "address", "city", "Hanoi")),
+                delta(5, Map.of("phone", "0900"))));
+
+        assertThat(rebuilt).isEqualTo(Map.of("customerId", "C-1", "step", "address", "city", "Hanoi",
+                "phone", "0900"));
+    }
+
+    @Test
+    void rebuildSkipsRedeliveredDeltas() {
+        Map<String, Object> rebuilt = CasePatches.rebuild(List.of(
+                snapshot(1, Map.of("step", "start")),
+                delta(2, Map.of("step", "address")),
+                delta(3, Map.of("step", "documents")),
+                delta(2, Map.of("step", "address")),
+                delta(1, Map.of("step", "stale"))));
+
+        assertThat(rebuilt).isEqualTo(Map.of("step", "documents"));
+    }
+
+    @Test
+    void rebuildRestartsFromTheLatestSnapshotWithoutAliasingIt() {
+        Map<String, Object> data = new LinkedHashMap<>(Map.of("step", "start"));
+        CaseUpdateEvent snapshot = snapshot(4, data);
+
+        Map<String, Object> rebuilt = CasePatches.rebuild(List.of(
+                snapshot(1, Map.of("old", true)),
+                delta(2, Map.of("ignored", "no")),
+                snapshot,
+                delta(5, Map.of("step", "address"))));
+
+        assertThat(rebuilt).isEqualTo(Map.of("step", "address"));
+        assertThat(snapshot.getCaseData()).isEqualTo(Map.of("step", "start"));
+    }
+
+    @Test
+    void rebuildAppliesEmptyAndUnversionedDeltas() {
+        Map<String, Object> rebuilt = CasePatches.rebuild(List.of(
+                snapshot(1, Map.of("step", "start")),
+                delta(2, Map.of()),
+                delta(null, Map.of("city", "Hanoi"))));
+
+        assertThat(rebuilt).isEqualTo(Map.of("step", "start", "city", "Hanoi"));
+    }
+
+    private static CaseUpdateEvent snapshot(int version, Map<String, Object> caseData) {
+        return CaseUpdateEvent.builder().caseId(CASE_ID).snapshot(true).version(version).caseData(caseData).build();
+    }
+
+    private static CaseUpdateEvent delta(Integer version, Map<String, Object> changed) {
+        return CaseUpdateEvent.builder().caseId(CASE_ID).version(version).patch(CasePatches.set(changed)).build();
+    }
+}
@@ -0,0 +1,107 @@
+package com.ngoctran.interactionservice.events.serialization;
+
+import com.ngoctran.interactionservice.events.AccountCreatedEvent;
+import com.ngoctran.interactionservice.events.CaseUpdateEvent;
+import com.ngoctran.interactionservice.events.ComplianceEvent;
+import com.ngoctran.interactionservice.events.CreditCheckEvent;
+import com.ngoctran.interactionservice.events.DocumentProcessedEvent;
+import com.ngoctran.interactionservice.events.InteractionStepEvent;
+import com.ngoctran.interactionservice.events.JointAccountEvent;
+import com.ngoctran.interactionservice.events.MilestoneEvent;
+import com.ngoctran.interactionservice.events.PerformanceMetricsEvent;
+import com.ngoctran.interactionservice.events.SystemErrorEvent;
+import com.ngoctran.interactionservice.events.WorkflowStateEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Every value type sent through the primary KafkaTemplate must survive the binary round trip
+ */
+class BinaryEventSerializerTest {
+
+    private static final String TOPIC = "test-topic";
+    private static final String CASE_ID = "3f2b8c1e-7a4d-4c1b-9e2f-0a1b2c3d4e5f";
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final BinaryEventSerializer serializer = new BinaryEventSerializer();
+    private final BinaryEventDeserializer deserializer = new BinaryEventDeserializer();
+
+    static Stream<Object> sentValues() {
+        return Stream.of(
+                WorkflowStateEvent.builder().workflowId(CASE_ID).workflowType("ONBOARDING")
+                        .oldState("KYC_PENDING").newState("KYC_APPROVED")
+                        .context(Map.of("caseId", CASE_ID, "actor", "system")).timestamp(NOW).build(),
+                CaseUpdateEvent.builder().caseId(CASE_ID).caseDefinitionKey("onboarding").snapshot(false)
+                        .version(7).patch(List.of(Map.of("op", "add", "path", "/customerId", "value", "C-1")))
+                        .timestamp(NOW).build(),
+                CaseUpdateEvent.builder().caseId(CASE_ID).caseDefinitionKey("onboarding").snapshot(true)
+                        .version(1).caseData(Map.of("customerId", "C-1", "step", Map.of("done", true)))
+                        .timestamp(NOW).build(),
+                MilestoneEvent.builder().caseId(CASE_ID).milestoneKey("DOCUMENTS_VERIFIED").eventType("COMPLETED")
+                        .eventData(Map.of("documents", 3)).timestamp(NOW).build(),
+                ComplianceEvent.builder().caseId(CASE_ID).applicantId("A-1").checkType("AML").status("PASSED")
+                        .checkResult(Map.of("score", 12)).timestamp(NOW).build(),
+                JointAccountEvent.builder().caseId(CASE_ID).primaryApplicantId("A-1").coApplicantId("A-2")
+                        .eventType("INVITATION_SENT").eventData(Map.of("channel", "email")).timestamp(NOW).build(),
+                SystemErrorEvent.builder().caseId(CASE_ID).processInstanceId("p-1").errorSource("worker")
+                        .errorCode("E1").errorMessage("boom").severity("HIGH").retryable(true)
+                        .errorContext(Map.of("attempt", 2)).timestamp(NOW).build(),
+                PerformanceMetricsEvent.builder().caseId(CASE_ID).stepName("kyc").durationMs(120).status("SUCCESS")
+                        .timestamp(NOW).build(),
+                InteractionStepEvent.builder().caseId(CASE_ID).interactionKey("onboarding").stepName("address")
+                        .action("COMPLETED").stepData(Map.of("city", "Hanoi")).timestamp(NOW).build(),
+                AccountCreatedEvent.builder().caseId(CASE_ID).customerId("C-1").accountNumber("ACC-1")
+                        .customerName("Test Customer").accountType("SAVINGS").timestamp(NOW).build(),
+                CreditCheckEvent.builder().caseId(CASE_ID).creditScore(720).creditRating("A").riskCategory("LOW")
+                        .passed(true).bureauDetails(Map.of("bureau", "X")).timestamp(NOW).build(),
+                DocumentProcessedEvent.builder().caseId(CASE_ID).documentType("PASSPORT").status("SUCCESS")
+                        .confidenceScore(0.97).verificationResult(true).metadata(Map.of("pages", 2))
+                        .timestamp(NOW).build(),
+                // FlowableEventBridge payloads (external job, process and task events)
+                Map.of("eventType", "EXTERNAL_JOB_CREATED", "jobId", "job-1", "topic", "kyc-check",
+                        "processInstanceId", "p-1", "jobData", Map.of("caseId", CASE_ID), "timestamp", NOW,
+                        "source", "flowable-engine"),
+                Map.of("eventType", "PROCESS_STARTED", "processInstanceId", "p-1", "processDefinitionKey", "onboarding",
+                        "eventData", Map.of(), "timestamp", NOW, "source", "flowable-engine"),
+                Map.of("eventType", "TASK_CREATED", "taskId", "t-1", "taskName", "Review", "processInstanceId", "p-1",
+                        "taskData", Map.of("assignee", "ops"), "timestamp", NOW, "source", "flowable-engine"));
+    }
+
+    @ParameterizedTest
+    @MethodSource("sentValues")
+    void roundTripsEverySentValue(Object value) {
+        byte[] bytes = serializer.serialize(TOPIC, value);
+
+        assertThat(deserializer.deserialize(TOPIC, bytes)).isEqualTo(value);
+    }
+
+    @Test
+    void writesUnregisteredValuesAsUntypedFrames() {
+        byte[] bytes = serializer.serialize(TOPIC, Map.of("eventType", "TASK_COMPLETED"));
+
+        assertThat(bytes[0]).isEqualTo(BinaryEventSerializer.UNTYPED_MAGIC_BYTE);
+    }
+
+    @Test
+    void readsJsonRecordsWrittenBeforeTheBinaryFormat() {
+        MilestoneEvent event = MilestoneEvent.builder().caseId(CASE_ID).milestoneKey("KYC").eventType("STARTED")
+                .timestamp(NOW).build();
+        byte[] json;
+        try (JsonSerializer<Object> jsonSerializer = new JsonSerializer<>()) {
+            jsonSerializer.setAddTypeInfo(false);
+            json = jsonSerializer.serialize(TOPIC, event);
+        }
+        deserializer.configure(Map.of("spring.json.value.default.type", MilestoneEvent.class.getName(),
+                "spring.json.trusted.packages", "*"), false);
+
+        assertThat(deserializer.deserialize(TOPIC, json)).isEqualTo(event);
+    }
+}
@@ -0,0 +1,113 @@
+package com.ngoctran.interactionservice.events.serialization;
+
+import com.ngoctran.interactionservice.events.CaseUpdateEvent;
+import com.ngoctran.interactionservice.events.MilestoneEvent;
+import com.ngoctran.interactionservice.events.WorkflowStateEvent;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compares payload size and serialization CPU of the JSON and binary event paths.
+ *
+ * Not part of the test run; start it from the IDE or with the test classpath, e.g.
+ * {@code java -cp target/test-classes:target/classes:<deps> com.ngoctran.interactionservice.events.serialization.EventSerializationBenchmark [iterations]}
+ */
+public final class EventSerializationBenchmark {
+
+    private static final String TOPIC = "benchmark";
+
+    private EventSerializationBenchmark() {
+    }
+
+    /**
+     * Mean ns per serialize call, and the total bytes produced (printed, so the loop cannot be dropped)
+     */
+    private record Timing(double nsPerOp, long bytes) {
+    }
+
+    public static void main(String[] args) {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        Serializer<Object> json = new JsonSerializer<>();
+        Serializer<Object> binary = new BinaryEventSerializer();
+        BinaryEventDeserializer binaryReader = new BinaryEventDeserializer();
+
+        long bytesSerialized = 0;
+        System.out.printf("%-20s %10s %10s %8s %12s %12s%n",
+                "event", "json B", "binary B", "ratio", "json ns/op", "binary ns/op");
+        for (Object event : sampleEvents()) {
+            byte[] jsonBytes = json.serialize(TOPIC, event);
+            byte[] binaryBytes = binary.serialize(TOPIC, event);
+            if (!event.equals(binaryReader.deserialize(TOPIC, binaryBytes))) {
+                throw new IllegalStateException("Binary round trip changed " + event.getClass().getSimpleName());
+            }
+
+            // Warm up both paths before timing
+            bytesSerialized += time(json, event, iterations / 4).bytes();
+            bytesSerialized += time(binary, event, iterations / 4).bytes();
+            Timing jsonTiming = time(json, event, iterations);
+            Timing binaryTiming = time(binary, event, iterations);
+            bytesSerialized += jsonTiming.bytes() + binaryTiming.bytes();
+
+            System.out.printf("%-20s %10d %10d %7.2fx %12.0f %12.0f%n",
+                    event.getClass().getSimpleName(), jsonBytes.length, binaryBytes.length,
+                    (double) jsonBytes.length / binaryBytes.length, jsonTiming.nsPerOp(), binaryTiming.nsPerOp());
+        }
+        System.out.printf("%d bytes serialized%n", bytesSerialized);
+    }
+
+    private static Timing time(Serializer<Object> serializer, Object event, int iterations) {
+        long bytes = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            bytes += serializer.serialize(TOPIC, event).length;
+        }
+        long elapsed = System.nanoTime() - start;
+        return new Timing((double) elapsed / iterations, bytes);
+    }
+
+    private static List<Object> sampleEvents() {
+        String caseId = UUID.randomUUID().toString();
+
+        Map<String, Object> caseData = new LinkedHashMap<>();
+        for (int i = 0; i < 40; i++) {
+            Map<String, Object> step = new LinkedHashMap<>();
+            step.put("status", i % 3 == 0 ? "COMPLETED" : "PENDING");
+            step.put("submittedAt", 1_700_000_000_000L + i * 60_000L);
+            step.put("score", 0.5 + i / 100.0);
+            step.put("notes", "Step " + i + " captured from onboarding form");
+            caseData.put("step_" + i, step);
+        }
+        caseData.put("customerId", "CUST-000123");
+        caseData.put("currentStep", "step_39");
+
+        return List.of(
+                WorkflowStateEvent.builder()
+                        .workflowId(caseId)
+                        .workflowType("ONBOARDING")
+                        .oldState("KYC_PENDING")
+                        .newState("KYC_APPROVED")
+                        .context(Map.of("actor", "system", "reason", "auto-approved"))
+                        .timestamp(System.currentTimeMillis())
+                        .build(),
+                MilestoneEvent.builder()
+                        .caseId(caseId)
+                        .milestoneKey("DOCUMENTS_VERIFIED")
+                        .eventType("COMPLETED")
+                        .eventData(Map.of("documents", 3, "verifiedBy", "ocr-service"))
+                        .timestamp(System.currentTimeMillis())
+                        .build(),
+                CaseUpdateEvent.builder()
+                        .caseId(caseId)
+                        .caseDefinitionKey("onboarding")
+                        .caseData(caseData)
+                        .changes(Map.of("currentStep", "step_39"))
+                        .timestamp(System.currentTimeMillis())
+                        .build());
+    }
+}